@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compara el modo de hilos de plataforma, el de hilos virtuales y la pila reactiva (WebFlux + R2DBC) bajo la misma
+# carga.
+#
+# Uso: scripts/load-test.sh [duración] [conexiones]
+#   Requiere wrk (https://github.com/wg/wrk), Java 21 y PostgreSQL accesible con la configuración por defecto.
+#   Arranca la aplicación tres veces (sin perfil, virtual-threads y reactive) y lanza la misma carga contra
+#   GET /api/users/{id} y GET /api/users?limit=50. Los resultados se guardan en target/load-test/.
+set -euo pipefail
+
+DURATION=${1:-30s}
+CONNECTIONS=${2:-400}
+THREADS=${THREADS:-8}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+OUT_DIR=target/load-test
+
+cd "$(dirname "$0")/.."
+mkdir -p "$OUT_DIR"
+
+command -v wrk >/dev/null || { echo "wrk no está instalado" >&2; exit 1; }
+
+mvn -q -B -Pjava21,reactive package -DskipTests
+JAR=$(ls target/user-crud-hexagonal-*.jar | head -n 1)
+
+wait_for_app() {
+    for _ in $(seq 1 60); do
+        curl -fs "${BASE_URL}/actuator/health" >/dev/null && return 0
+        sleep 1
+    done
+    echo "La aplicación no arrancó" >&2
+    return 1
+}
+
+run_mode() {
+    local mode=$1 profiles=$2
+    echo "== Modo ${mode}"
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        --logging.level.com.example.usercrud=INFO --logging.level.org.springframework.web=INFO \
+        > "$OUT_DIR/${mode}-app.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" RETURN
+    wait_for_app
+
+    local id
+    id=$(curl -fs -X POST "${BASE_URL}/api/users" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"load${RANDOM}${RANDOM}\",\"email\":\"load${RANDOM}${RANDOM}@example.com\",\"firstName\":\"Load\",\"lastName\":\"Test\"}" \
+        | sed -E 's/.*"id":"([^"]+)".*/\1/')
+
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "${BASE_URL}/api/users/${id}" \
+        | tee "$OUT_DIR/${mode}-get-by-id.txt"
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "${BASE_URL}/api/users?limit=50" \
+        | tee "$OUT_DIR/${mode}-page.txt"
+    curl -fs "${BASE_URL}/actuator/metrics/hikaricp.connections.pending" > "$OUT_DIR/${mode}-hikari-pending.json" || true
+    curl -fs "${BASE_URL}/actuator/metrics/user.repository.limiter.wait" > "$OUT_DIR/${mode}-limiter-wait.json" || true
+    curl -fs "${BASE_URL}/actuator/metrics/jvm.threads.live" > "$OUT_DIR/${mode}-threads.json" || true
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+run_mode reactive reactive
+
+echo
+echo "Resumen (Requests/sec y latencia p99):"
+for f in "$OUT_DIR"/*-get-by-id.txt "$OUT_DIR"/*-page.txt; do
+    printf '%-40s %s | %s\n' "$(basename "$f")" \
+        "$(grep 'Requests/sec' "$f" | awk '{print $2}')" \
+        "$(grep ' 99%' "$f" | awk '{print $2}')"
+done
@@ -0,0 +1,5 @@
+#!/bin/sh
+# Permite conexiones de replicación en streaming desde la red de docker (servicio postgres-replica).
+# Solo se ejecuta al inicializar un volumen vacío.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,119 @@
+#!/usr/bin/env bash
+# Tiempo de arranque y memoria residente (RSS) de cada variante de despliegue:
+#   jar     java -jar con el fat jar
+#   aot-cds jar extraído + Spring AOT (-Dspring.aot.enabled=true) + archivo CDS generado con una ejecución de prueba
+#   native  imagen nativa de GraalVM (solo si native-image está en el PATH)
+#
+# Uso: scripts/startup-footprint.sh [ejecuciones]
+#   Cada variante se arranca una vez de calentamiento (caché de disco) y luego 'ejecuciones' veces (5 por defecto).
+#   Se mide el tiempo hasta que /actuator/health responde, el "Started ... in" de Spring Boot y el VmRSS del proceso
+#   en ese momento. Resultados en target/startup/results.csv y mediana por variante en pantalla.
+#
+#   Sin variables, la aplicación necesita PostgreSQL con la configuración por defecto. PROFILES=memory mide sin BD;
+#   con AOT e imagen nativa los perfiles se fijan al compilar, así que PROFILES también se pasa al procesado AOT.
+#   JAVA_OPTS se añade a las dos variantes JVM (p. ej. JAVA_OPTS=-Xmx256m para fijar el heap).
+set -euo pipefail
+
+RUNS=${1:-5}
+PROFILES=${PROFILES:-}
+JAVA_OPTS=${JAVA_OPTS:-}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+OUT_DIR=target/startup
+
+cd "$(dirname "$0")/.."
+mkdir -p "$OUT_DIR"
+
+AOT_ARGS=()
+APP_ARGS=(--server.port="$PORT")
+if [ -n "$PROFILES" ]; then
+    AOT_ARGS=(-Dspring-boot.aot.jvmArguments="-Dspring.profiles.active=${PROFILES}")
+    APP_ARGS+=(--spring.profiles.active="$PROFILES")
+fi
+
+VARIANTS=(jar aot-cds)
+if command -v native-image >/dev/null; then
+    mvn -q -B -Pnative package -DskipTests "${AOT_ARGS[@]}"
+    VARIANTS+=(native)
+else
+    echo "native-image no está en el PATH: se omite la variante native" >&2
+fi
+# Después del build nativo: el jar de -Paot es el que se mide en jar y aot-cds
+mvn -q -B -Paot package -DskipTests "${AOT_ARGS[@]}"
+JAR=$(ls target/user-crud-hexagonal-*.jar | head -n 1)
+
+# Mismo procedimiento que el Dockerfile: extraer y entrenar el archivo CDS arrancando hasta el refresh del contexto
+CDS_DIR="$OUT_DIR/aot-cds"
+rm -rf "$CDS_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$CDS_DIR" >/dev/null
+CDS_JAR="$CDS_DIR/$(basename "$JAR")"
+java -XX:ArchiveClassesAtExit="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$CDS_JAR" "${APP_ARGS[@]}" --spring.sql.init.mode=never > "$OUT_DIR/cds-training.log" 2>&1
+
+# Deja en CMD la línea de arranque de la variante
+command_for() {
+    case $1 in
+        jar) CMD=(java $JAVA_OPTS -jar "$JAR") ;;
+        aot-cds) CMD=(java $JAVA_OPTS -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true
+            -jar "$CDS_JAR") ;;
+        native) CMD=(target/user-crud-hexagonal) ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Imprime "ms_hasta_health;segundos_spring;rss_kb"
+measure() {
+    local variant=$1 log=$2
+    local start pid
+    start=$(now_ms)
+    command_for "$variant"
+    "${CMD[@]}" "${APP_ARGS[@]}" > "$log" 2>&1 &
+    pid=$!
+    for _ in $(seq 1 1200); do
+        if curl -fs "${BASE_URL}/actuator/health" >/dev/null 2>&1; then
+            local ready rss started
+            ready=$(( $(now_ms) - start ))
+            rss=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")
+            started=$(grep -o 'Started .* in [0-9.]* seconds' "$log" | awk '{print $(NF-1)}')
+            kill "$pid"
+            wait "$pid" 2>/dev/null || true
+            echo "${ready};${started};${rss}"
+            return 0
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "La variante ${variant} terminó sin arrancar (ver ${log})" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    kill "$pid"
+    echo "La variante ${variant} no arrancó (ver ${log})" >&2
+    return 1
+}
+
+median() {
+    sort -n | awk '{v[NR]=$1} END {print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2}'
+}
+
+echo "variant;run;ready_ms;spring_started_s;rss_kb" > "$OUT_DIR/results.csv"
+for variant in "${VARIANTS[@]}"; do
+    echo "== ${variant}"
+    measure "$variant" "$OUT_DIR/${variant}-warmup.log" >/dev/null
+    for run in $(seq 1 "$RUNS"); do
+        echo "${variant};${run};$(measure "$variant" "$OUT_DIR/${variant}-${run}.log")" | tee -a "$OUT_DIR/results.csv"
+    done
+done
+
+echo
+echo "Mediana de ${RUNS} ejecuciones:"
+printf '%-10s %12s %14s %10s\n' variante "health (ms)" "Started (s)" "RSS (MB)"
+for variant in "${VARIANTS[@]}"; do
+    rows=$(grep "^${variant};" "$OUT_DIR/results.csv")
+    printf '%-10s %12s %14s %10s\n' "$variant" \
+        "$(echo "$rows" | cut -d';' -f3 | median)" \
+        "$(echo "$rows" | cut -d';' -f4 | median)" \
+        "$(echo "$rows" | cut -d';' -f5 | median | awk '{printf "%.0f", $1 / 1024}')"
+done
@@ -0,0 +1,35 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Datos sintéticos compartidos por los benchmarks
+public final class BenchmarkUsers {
+    
+    private BenchmarkUsers() {
+    }
+    
+    public static User user(int i) {
+        return User.create(UUID.randomUUID(), "user" + i, "user" + i + "@example.com", "First" + i, "Last" + i,
+                Instant.now());
+    }
+    
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+    
+    public static List<User> populate(UserRepositoryPort repository, int count) {
+        List<User> users = users(count);
+        repository.insertAll(users);
+        return users;
+    }
+}
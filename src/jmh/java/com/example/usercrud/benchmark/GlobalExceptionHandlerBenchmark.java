@@ -0,0 +1,70 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.domain.exception.DuplicateUsernameException;
+import com.example.usercrud.domain.exception.UserNotFoundException;
+import com.example.usercrud.infrastructure.adapter.in.web.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Camino de un 404: la excepción se crea 'depth' marcos por debajo del handler (servicio, proxies de Spring,
+// filtros...), que es lo que determina el coste de rellenar la traza, y se traduce a respuesta. El desapilado al
+// lanzarla cuesta lo mismo en ambos casos y no se mide. notFoundWithStackTrace es el camino anterior
+// (RuntimeException con traza y el antiguo handler genérico de RuntimeException, reproducido aquí); notFound el
+// actual, sin traza
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+    
+    @Param({"10", "100"})
+    public int depth;
+    
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final UUID id = UUID.randomUUID();
+    
+    @Benchmark
+    public ResponseEntity<?> notFoundWithStackTrace() {
+        RuntimeException ex = createAt(depth, false);
+        GlobalExceptionHandler.ErrorResponse error = new GlobalExceptionHandler.ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> notFound() {
+        return handler.handleUserNotFoundException((UserNotFoundException) createAt(depth, true));
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> duplicate() {
+        return handler.handleDuplicateUserException(new DuplicateUsernameException("Username already exists: user42"));
+    }
+    
+    private RuntimeException createAt(int frames, boolean stackless) {
+        if (frames > 0) {
+            return createAt(frames - 1, stackless);
+        }
+        String message = "User not found with id: " + id;
+        return stackless ? new UserNotFoundException(message) : new RuntimeException(message);
+    }
+}
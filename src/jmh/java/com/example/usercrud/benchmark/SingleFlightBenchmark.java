@@ -0,0 +1,106 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.out.persistence.SingleFlightUserRepositoryAdapter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Muchos hilos pidiendo los mismos usuarios (p. ej. tras expirar una entrada muy leída de la caché) contra un
+// repositorio que tarda ~1ms por consulta. Los contadores lookups y dbCalls muestran cuántas búsquedas llegan
+// realmente a la "BD" con y sin single-flight
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(64)
+@Fork(1)
+public class SingleFlightBenchmark {
+    
+    private static final ThreadLocal<Calls> CURRENT = new ThreadLocal<>();
+    
+    @Param({"true", "false"})
+    public boolean singleFlight;
+    
+    // Usuarios distintos que se piden: cuantos menos, más coincidencias
+    @Param({"16"})
+    public int hotUsers;
+    
+    @Param({"1000"})
+    public long queryMicros;
+    
+    private UserRepositoryPort repository;
+    private List<User> hot;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SlowRepository slow = new SlowRepository(TimeUnit.MICROSECONDS.toNanos(queryMicros));
+        hot = BenchmarkUsers.populate(slow, hotUsers);
+        repository = singleFlight
+                ? new SingleFlightUserRepositoryAdapter(slow, Duration.ofSeconds(2), new SimpleMeterRegistry())
+                : slow;
+    }
+    
+    @Benchmark
+    public Optional<User> findByUsername(Calls calls) {
+        calls.lookups++;
+        return repository.findByUsername(hot.get(ThreadLocalRandom.current().nextInt(hot.size())).getUsername());
+    }
+    
+    // Por hilo: la consulta real se ejecuta en el hilo que la lanza, así que cada hilo cuenta las suyas
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Calls {
+        public long lookups;
+        public long dbCalls;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            lookups = 0;
+            dbCalls = 0;
+            CURRENT.set(this);
+        }
+    }
+    
+    // Simula la latencia de una consulta a PostgreSQL
+    static final class SlowRepository extends InMemoryUserRepositoryAdapter {
+        
+        private final long queryNanos;
+        
+        SlowRepository(long queryNanos) {
+            this.queryNanos = queryNanos;
+        }
+        
+        @Override
+        public Optional<User> findByUsername(String username) {
+            Calls calls = CURRENT.get();
+            if (calls != null) {
+                calls.dbCalls++;
+            }
+            LockSupport.parkNanos(queryNanos);
+            return super.findByUsername(username);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.out.cache.CaffeineUserCacheAdapter;
+import com.example.usercrud.infrastructure.adapter.out.cache.InMemorySharedUserCacheStore;
+import com.example.usercrud.infrastructure.adapter.out.cache.TwoLevelUserCacheAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Varias réplicas con su caché leyendo y modificando los mismos usuarios, como getUserById/updateUser en
+// UserService: cada hilo es una petición que el balanceador manda a una réplica al azar. Con "local" cada réplica
+// solo invalida su propia caché; con "two-level" comparten InMemorySharedUserCacheStore (el sustituto de Redis).
+// Contadores: dbLoads (lecturas que llegan a la "BD") y staleReads (lecturas con una versión anterior a la última
+// escrita antes de empezar la lectura)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class TwoLevelUserCacheBenchmark {
+    
+    @Param({"local", "two-level"})
+    public String cache;
+    
+    @Param({"4"})
+    public int replicas;
+    
+    // Porcentaje de peticiones que modifican el usuario
+    @Param({"1"})
+    public int writePercent;
+    
+    @Param({"10000"})
+    public int size;
+    
+    private UserCachePort[] nodes;
+    private List<User> users;
+    // La "BD": última versión de cada usuario
+    private final Map<UUID, User> database = new ConcurrentHashMap<>();
+    private final AtomicInteger clock = new AtomicInteger();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = BenchmarkUsers.users(size);
+        for (User user : users) {
+            database.put(user.getId(), user);
+        }
+        InMemorySharedUserCacheStore shared = new InMemorySharedUserCacheStore(size, Duration.ofMinutes(10),
+                Duration.ofSeconds(10));
+        nodes = new UserCachePort[replicas];
+        for (int i = 0; i < replicas; i++) {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            CaffeineUserCacheAdapter near = new CaffeineUserCacheAdapter(registry, size, Duration.ofMinutes(10),
+                    size, Duration.ofSeconds(30), Duration.ofSeconds(10));
+            nodes[i] = cache.equals("two-level") ? new TwoLevelUserCacheAdapter(near, shared, registry) : near;
+        }
+    }
+    
+    @Benchmark
+    public User request(Counters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UserCachePort node = nodes[random.nextInt(replicas)];
+        UUID id = users.get(random.nextInt(size)).getId();
+        if (random.nextInt(100) < writePercent) {
+            // Como UserService: la BD asigna la versión siguiente y, tras el commit, evict + put
+            User updated = database.compute(id, (key, user) -> user.withDetails(user.getUsername(), user.getEmail(),
+                    user.getFirstName(), "Last" + clock.incrementAndGet(), Instant.now()));
+            node.evict(id, updated.getVersion());
+            node.put(updated);
+            return updated;
+        }
+        counters.reads++;
+        long latest = database.get(id).getVersion();
+        User user = node.getById(id).orElse(null);
+        if (user == null) {
+            counters.dbLoads++;
+            user = database.get(id);
+            node.put(user);
+        }
+        if (user.getVersion() < latest) {
+            counters.staleReads++;
+        }
+        return user;
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long reads;
+        public long dbLoads;
+        public long staleReads;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            reads = 0;
+            dbLoads = 0;
+            staleReads = 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.domain.RandomUserIdGenerator;
+import com.example.usercrud.domain.TimeOrderedUserIdGenerator;
+import com.example.usercrud.domain.UserIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Inserción de 10M claves generadas con UUIDv4 y UUIDv7 en un índice ordenado que compara como el btree de
+// PostgreSQL sobre uuid (bytes sin signo). Con v4 cada inserción recorre una rama distinta del árbol y falla en
+// caché; con v7 todas caen en el extremo derecho, que se mantiene caliente. Cada operación es la carga completa
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class UserIdInsertBenchmark {
+    
+    private static final Comparator<UUID> PG_UUID_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+    
+    @Param({"v4", "v7"})
+    public String generator;
+    
+    @Param({"10000000"})
+    public int rows;
+    
+    private UserIdGenerator ids;
+    
+    @Setup
+    public void setUp() {
+        ids = generator.equals("v4") ? new RandomUserIdGenerator() : new TimeOrderedUserIdGenerator(Clock.systemUTC());
+    }
+    
+    @Benchmark
+    public int insert() {
+        NavigableSet<UUID> primaryKey = new TreeSet<>(PG_UUID_ORDER);
+        for (int i = 0; i < rows; i++) {
+            primaryKey.add(ids.nextId());
+        }
+        return primaryKey.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserRepositoryAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Latencia de searchUsers con el índice invertido del adaptador en memoria frente al filtrado en cliente de la
+// lista completa (lo que hacía el soporte antes de existir la búsqueda)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class UserSearchBenchmark {
+    
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Lucia",
+        "Javier", "Marta", "Pablo", "Elena", "Sergio", "Laura", "Andres", "Carmen", "Diego", "Paula"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Fernandez", "Sanchez", "Perez", "Gomez", "Diaz", "Romero", "Navarro", "Torres", "Ruiz", "Alvarez"
+    };
+    private static final String[] DOMAINS = {"example.com", "acme.org", "mail.net", "corp.io"};
+    
+    @Param({"1000000"})
+    public int users;
+    
+    // username: prefijo casi único; lastname: prefijo compartido por ~3% de los usuarios; fuzzy: nombre con erratas
+    @Param({"username", "lastname", "fuzzy"})
+    public String query;
+    
+    @Param({"50"})
+    public int limit;
+    
+    private InMemoryUserRepositoryAdapter repository;
+    private String text;
+    private UserSearchFilter filter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryUserRepositoryAdapter();
+        Random random = new Random(42);
+        List<User> batch = new ArrayList<>(10_000);
+        String probe = null;
+        for (int i = 0; i < users; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = (first.charAt(0) + last + i).toLowerCase(Locale.ROOT);
+            if (i == users / 2) {
+                probe = username;
+            }
+            String email = username + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+            batch.add(User.create(UUID.randomUUID(), username, email, first, last, Instant.now()));
+            if (batch.size() == 10_000) {
+                repository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        repository.insertAll(batch);
+        switch (query) {
+            case "username" -> {
+                text = probe;
+                filter = new UserSearchFilter(UserSearchFilter.Match.PREFIX, null);
+            }
+            case "lastname" -> {
+                text = "navar";
+                filter = new UserSearchFilter(UserSearchFilter.Match.PREFIX, true);
+            }
+            default -> {
+                text = "fernandes";
+                filter = new UserSearchFilter(UserSearchFilter.Match.FUZZY, null);
+            }
+        }
+    }
+    
+    @Benchmark
+    public List<User> indexedSearch() {
+        return repository.searchUsers(text, filter, null, limit);
+    }
+    
+    @Benchmark
+    public List<User> clientSideFilter() {
+        List<User> matches = new ArrayList<>(limit);
+        for (User user : repository.findAll()) {
+            if (matches.size() < limit && (user.getUsername().startsWith(text)
+                    || user.getLastName().toLowerCase(Locale.ROOT).startsWith(text))) {
+                matches.add(user);
+            }
+        }
+        return matches;
+    }
+}
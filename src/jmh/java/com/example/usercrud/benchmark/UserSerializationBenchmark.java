@@ -0,0 +1,162 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.in.web.json.UserJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Respuesta JSON de una lista de usuarios antes y después de serializar User directamente:
+// - legacyDto: copia cada usuario a un DTO con LocalDateTime y fullName recién concatenado (el antiguo toDto) y lo
+//   serializa por introspección de getters
+// - direct: UserJsonSerializer sobre los User tal cual, como hace ahora el controlador
+// Perfil de asignaciones: mvn -Pbenchmarks compile exec:exec -Djmh.args="UserSerializationBenchmark -prof gc"
+// (gc.alloc.rate.norm es lo asignado por operación)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+    
+    @Param({"1000", "100000"})
+    public int size;
+    
+    private ObjectMapper legacyMapper;
+    private ObjectMapper directMapper;
+    private List<User> users;
+    
+    @Setup
+    public void setUp() {
+        // Misma configuración que application.yml
+        legacyMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        directMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(User.class, new UserJsonSerializer()))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        users = BenchmarkUsers.users(size);
+    }
+    
+    @Benchmark
+    public long legacyDto() throws IOException {
+        List<LegacyUserDto> dtos = new ArrayList<>(users.size());
+        for (User user : users) {
+            dtos.add(new LegacyUserDto(user));
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        legacyMapper.writeValue(out, dtos);
+        return out.count;
+    }
+    
+    @Benchmark
+    public long direct() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        directMapper.writeValue(out, users);
+        return out.count;
+    }
+    
+    // Forma del UserDto que devolvía el controlador
+    public static final class LegacyUserDto {
+        private final UUID id;
+        private final String username;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final String fullName;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final boolean active;
+        private final long version;
+        
+        LegacyUserDto(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.email = user.getEmail();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.fullName = user.getFirstName() + " " + user.getLastName();
+            this.createdAt = LocalDateTime.ofInstant(user.getCreatedAt(), ZoneOffset.UTC);
+            this.updatedAt = LocalDateTime.ofInstant(user.getUpdatedAt(), ZoneOffset.UTC);
+            this.active = user.isActive();
+            this.version = user.getVersion();
+        }
+        
+        public UUID getId() {
+            return id;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public String getFirstName() {
+            return firstName;
+        }
+        
+        public String getLastName() {
+            return lastName;
+        }
+        
+        public String getFullName() {
+            return fullName;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        public boolean isActive() {
+            return active;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+    }
+    
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.usercrud.benchmark;
+
+import com.example.usercrud.application.service.UserService;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.TimeOrderedUserIdGenerator;
+import com.example.usercrud.domain.UserEvent;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.infrastructure.adapter.out.cache.CaffeineUserCacheAdapter;
+import com.example.usercrud.infrastructure.adapter.out.cache.NoOpUserCacheAdapter;
+import com.example.usercrud.infrastructure.adapter.out.keyfilter.NoOpUserKeyFilterAdapter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserEventOutboxAdapter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UserService contra el adaptador en memoria: mide la lógica de aplicación sin base de datos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+    
+    @Param({"10000"})
+    public int users;
+    
+    @Param({"true", "false"})
+    public boolean cached;
+    
+    private UserService userService;
+    private InMemoryUserEventOutboxAdapter eventOutbox;
+    private List<User> existing;
+    private final AtomicLong sequence = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryUserRepositoryAdapter repository = new InMemoryUserRepositoryAdapter();
+        existing = BenchmarkUsers.populate(repository, users);
+        eventOutbox = new InMemoryUserEventOutboxAdapter();
+        userService = new UserService(repository, cached
+                ? new CaffeineUserCacheAdapter(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10),
+                        100_000, Duration.ofSeconds(30), Duration.ofSeconds(10))
+                : new NoOpUserCacheAdapter(), new NoOpUserKeyFilterAdapter(), eventOutbox, Clock.systemUTC(),
+                new TimeOrderedUserIdGenerator(Clock.systemUTC()));
+    }
+    
+    // Sin relay: se vacía el outbox entre iteraciones para que no crezca sin límite
+    @TearDown(Level.Iteration)
+    public void drainOutbox() {
+        List<Long> sequences = new ArrayList<>();
+        for (UserEvent event : eventOutbox.claimPending(Integer.MAX_VALUE, Duration.ofMinutes(1))) {
+            sequences.add(event.getSequence());
+        }
+        eventOutbox.delete(sequences);
+    }
+    
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserById(randomUser().getId());
+    }
+    
+    @Benchmark
+    public User getUserByUsername() {
+        return userService.getUserByUsername(randomUser().getUsername());
+    }
+    
+    @Benchmark
+    public UserPage getUsersPage() {
+        return userService.getUsers(null, 50, false);
+    }
+    
+    @Benchmark
+    public User createUser() {
+        long n = sequence.incrementAndGet();
+        return userService.createUser("bench" + n, "bench" + n + "@example.com", "Bench", "User");
+    }
+    
+    @Benchmark
+    public User updateUser() {
+        User user = randomUser();
+        return userService.updateUser(user.getId(), user.getUsername(), user.getEmail(), "Updated", "Name");
+    }
+    
+    private User randomUser() {
+        return existing.get(ThreadLocalRandom.current().nextInt(existing.size()));
+    }
+}
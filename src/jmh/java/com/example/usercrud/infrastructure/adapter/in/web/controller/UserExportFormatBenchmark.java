@@ -0,0 +1,132 @@
+package com.example.usercrud.infrastructure.adapter.in.web.controller;
+
+import com.example.usercrud.benchmark.BenchmarkUsers;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.in.web.json.UserJsonSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Exportación completa en cada formato que ofrece GET /api/users, con y sin gzip: el tiempo por operación es la CPU
+// de serializar (y comprimir) y el contador wire.bytes el tamaño de la respuesta. Mismo paquete que UserController
+// para usar UserCsvWriter (package-private)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserExportFormatBenchmark {
+    
+    @Param({"ndjson", "smile", "cbor", "csv"})
+    public String format;
+    
+    @Param({"none", "gzip"})
+    public String compression;
+    
+    @Param({"100000"})
+    public int size;
+    
+    private List<User> users;
+    private ObjectWriter writer;
+    
+    @Setup
+    public void setUp() {
+        users = BenchmarkUsers.users(size);
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        writer = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(User.class, new UserJsonSerializer()))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+    }
+    
+    @Benchmark
+    public long export(Wire wire) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (OutputStream out = compression.equals("gzip") ? new GZIPOutputStream(counter, 8192) : counter) {
+            if (format.equals("csv")) {
+                UserCsvWriter csv = new UserCsvWriter(out);
+                for (User user : users) {
+                    csv.write(user);
+                }
+                csv.flush();
+            } else {
+                writeValues(out);
+            }
+        }
+        wire.bytes = counter.count;
+        return counter.count;
+    }
+    
+    // Igual que UserController.streamValues: un valor raíz por usuario, separados por '\n' en NDJSON
+    private void writeValues(OutputStream out) throws IOException {
+        boolean ndjson = format.equals("ndjson");
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            }
+            for (User user : users) {
+                writer.writeValue(generator, user);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+    }
+    
+    // Tamaño de la última respuesta (no se acumula: es el valor por operación)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+    
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
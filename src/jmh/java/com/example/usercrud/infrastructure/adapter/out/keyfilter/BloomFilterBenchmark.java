@@ -0,0 +1,74 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste de descartar un username nuevo con el filtro de claves y tasa real de falsos positivos (falsePositives /
+// checks) frente a la configurada. El contador bytes es la memoria del filtro. Mismo paquete que BloomFilter
+// (package-private)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class BloomFilterBenchmark {
+    
+    private static final long SEED = 1;
+    
+    @Param({"1000000"})
+    public int users;
+    
+    @Param({"0.01", "0.001"})
+    public double falsePositiveRate;
+    
+    private BloomFilter filter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = BloomFilter.create(users, falsePositiveRate);
+        for (int i = 0; i < users; i++) {
+            filter.put("user" + i, SEED);
+        }
+    }
+    
+    @Benchmark
+    public boolean checkNewUsername(Checks checks) {
+        // Usernames que nunca se han insertado: todo "true" es un falso positivo
+        boolean maybe = filter.mightContain("new-user" + checks.next++, SEED);
+        checks.checks++;
+        if (maybe) {
+            checks.falsePositives++;
+        }
+        checks.bytes = filter.sizeInBytes();
+        return maybe;
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Checks {
+        public long checks;
+        public long falsePositives;
+        public long bytes;
+        private long next;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            checks = 0;
+            falsePositives = 0;
+        }
+    }
+}
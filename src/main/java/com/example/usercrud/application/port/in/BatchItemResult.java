@@ -0,0 +1,77 @@
+package com.example.usercrud.application.port.in;
+
+import com.example.usercrud.domain.User;
+
+import java.util.UUID;
+
+// Resultado de un elemento de una operación masiva; 'index' es su posición en la petición
+public final class BatchItemResult {
+    
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DEACTIVATED,
+        DUPLICATE,
+        NOT_FOUND,
+        CONFLICT
+    }
+    
+    private final int index;
+    private final Status status;
+    private final UUID id;
+    private final User user;
+    private final String message;
+
+    private BatchItemResult(int index, Status status, UUID id, User user, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static BatchItemResult created(int index, User user) {
+        return new BatchItemResult(index, Status.CREATED, user.getId(), user, null);
+    }
+
+    public static BatchItemResult updated(int index, User user) {
+        return new BatchItemResult(index, Status.UPDATED, user.getId(), user, null);
+    }
+
+    public static BatchItemResult deactivated(int index, UUID id) {
+        return new BatchItemResult(index, Status.DEACTIVATED, id, null, null);
+    }
+
+    public static BatchItemResult duplicate(int index, UUID id, String message) {
+        return new BatchItemResult(index, Status.DUPLICATE, id, null, message);
+    }
+
+    public static BatchItemResult notFound(int index, UUID id) {
+        return new BatchItemResult(index, Status.NOT_FOUND, id, null, "User not found with id: " + id);
+    }
+
+    public static BatchItemResult conflict(int index, UUID id) {
+        return new BatchItemResult(index, Status.CONFLICT, id, null,
+                "User was modified or deleted concurrently: " + id);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
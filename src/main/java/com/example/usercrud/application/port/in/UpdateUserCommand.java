@@ -0,0 +1,39 @@
+package com.example.usercrud.application.port.in;
+
+import java.util.UUID;
+
+public final class UpdateUserCommand {
+    private final UUID id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+
+    public UpdateUserCommand(UUID id, String username, String email, String firstName, String lastName) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.usercrud.application.port.in;
 
 import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface UserServicePort {
     User createUser(String username, String email, String firstName, String lastName);
     User updateUser(UUID id, String username, String email, String firstName, String lastName);
+    User updateUser(UUID id, long expectedVersion, String username, String email, String firstName, String lastName);
     User getUserById(UUID id);
     User getUserByUsername(String username);
     List<User> getAllUsers();
     List<User> getAllActiveUsers();
+    UserPage getUsers(UserCursor after, int limit, boolean activeOnly);
+    // Búsqueda paginada por keyset (createdAt, id) sobre username, email, nombre y apellido
+    UserPage searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit);
+    void streamUsers(boolean activeOnly, Consumer<User> consumer);
+    // Feed incremental: usuarios creados, modificados o borrados desde 'since' (null = todos)
+    UserChangePage getChanges(UserChangeCursor since, int limit);
     void deactivateUser(UUID id);
     void activateUser(UUID id);
     void deleteUser(UUID id);
+    List<BatchItemResult> createUsers(List<CreateUserCommand> commands);
+    List<BatchItemResult> updateUsers(List<UpdateUserCommand> commands);
+    List<BatchItemResult> deactivateUsers(Collection<UUID> ids);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.usercrud.application.port.out;
+
+// Lanzada por el adaptador de persistencia cuando una escritura viola la unicidad de username o email
+public class DuplicateUserKeyException extends RuntimeException {
+    
+    public enum Key {
+        USERNAME,
+        EMAIL
+    }
+    
+    private final Key key;
+    
+    public DuplicateUserKeyException(Key key, Throwable cause) {
+        super("Duplicate " + key.name().toLowerCase(), cause);
+        this.key = key;
+    }
+    
+    public Key getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.usercrud.application.port.out;
+
+import com.example.usercrud.domain.User;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserCachePort {
+    Optional<User> getById(UUID id);
+    Optional<User> getByUsername(String username);
+    void put(User user);
+    // Invalida el usuario y cualquier entrada por username que apunte a él tras una escritura que lo dejó en
+    // 'version'. Durante un tiempo se rechaza cachear versiones anteriores: las de lecturas que empezaron antes de la
+    // escritura y llegan después. Long.MAX_VALUE (borrado) rechaza cualquier versión
+    void evict(UUID id, long version);
+    // Caché negativa: usernames consultados recientemente que no existen
+    boolean isKnownMissingUsername(String username);
+    void putMissingUsername(String username);
+    // Tras crear el username (o renombrar a él). Como evict, durante un tiempo ignora putMissingUsername: el de una
+    // búsqueda que falló antes del commit y llega después
+    void evictMissingUsername(String username);
+}
@@ -0,0 +1,19 @@
+package com.example.usercrud.application.port.out;
+
+import com.example.usercrud.domain.UserEvent;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+// Outbox transaccional: los eventos se guardan en la misma transacción que la modificación que los produce
+public interface UserEventOutboxPort {
+    void append(UserEvent event);
+    void appendAll(List<UserEvent> events);
+    // Reserva durante 'lease' hasta 'limit' eventos pendientes, en orden de secuencia, empezando por el más antiguo
+    // sin reservar. Dos relays (uno por réplica) nunca reciben el mismo evento salvo que caduque su reserva
+    List<UserEvent> claimPending(int limit, Duration lease);
+    // Devuelve a pendientes los eventos reservados que no se llegan a publicar
+    void release(Collection<Long> sequences);
+    // Elimina los eventos ya publicados
+    void delete(Collection<Long> sequences);
+}
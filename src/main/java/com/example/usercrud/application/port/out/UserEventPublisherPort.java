@@ -0,0 +1,9 @@
+package com.example.usercrud.application.port.out;
+
+import com.example.usercrud.domain.UserEvent;
+import java.util.List;
+
+// Destino de los eventos del outbox. Una excepción hace que el lote completo se reintente (entrega al menos una vez)
+public interface UserEventPublisherPort {
+    void publish(List<UserEvent> events);
+}
@@ -0,0 +1,12 @@
+package com.example.usercrud.application.port.out;
+
+// Filtro aproximado de los usernames y emails en uso: false es definitivo (la clave no existe), true puede ser un
+// falso positivo y hay que confirmarlo en la BD. Los índices únicos siguen siendo la garantía de unicidad
+public interface UserKeyFilterPort {
+    boolean mightContainUsername(String username);
+    boolean mightContainEmail(String email);
+    // Se llama tras el commit: si hay una reconstrucción en curso la clave entra también en el filtro nuevo y, si
+    // empieza después, su recorrido ya ve la fila.
+    // Entre la escritura y el commit otra petición puede no verla en el filtro; la detiene el índice único
+    void add(String username, String email);
+}
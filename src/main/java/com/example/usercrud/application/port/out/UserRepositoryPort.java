@@ -0,0 +1,61 @@
+package com.example.usercrud.application.port.out;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserRepositoryPort {
+    User save(User user);
+    // Inserción en un único round trip; la unicidad la garantiza la BD (DuplicateUserKeyException)
+    User insert(User user);
+    // UPDATE ... RETURNING en un único round trip que incrementa la versión. Con expectedVersion != null solo
+    // actualiza si la versión coincide. Vacío si el usuario no existe o la versión no coincide
+    Optional<User> updateDetails(UUID id, Long expectedVersion, String username, String email, String firstName,
+                                 String lastName, Instant updatedAt);
+    // UPDATE ... RETURNING de una sola sentencia sin leer la fila antes; vacío si el usuario no existe
+    Optional<User> updateActive(UUID id, boolean active, Instant updatedAt);
+    Optional<User> findById(UUID id);
+    Optional<User> findByUsername(String username);
+    Optional<User> findByEmail(String email);
+    boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+    List<User> findAll();
+    List<User> findAllActive();
+    // Keyset sobre (createdAt, id): devuelve como máximo 'limit' usuarios posteriores a 'after' (null = desde el principio)
+    List<User> findPage(UserCursor after, int limit, boolean activeOnly);
+    // Como findPage pero solo con los usuarios que coinciden con 'query' (ya normalizada en minúsculas)
+    List<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit);
+    // Recorre los usuarios en orden (createdAt, id) sin materializar la tabla completa
+    void streamAll(boolean activeOnly, Consumer<User> consumer);
+    // Borrado lógico en una sola sentencia: el usuario deja de ser visible en el resto de operaciones pero queda como
+    // lápida en el feed de cambios hasta que se purga. Devuelve el usuario borrado (versión incrementada) o vacío si
+    // no existía
+    Optional<User> deleteById(UUID id, Instant deletedAt);
+    // Usuarios modificados y lápidas en orden (changedAt, id), posteriores a 'after' (null = desde el principio)
+    // y con changedAt anterior a 'before'
+    List<UserChange> findChanges(UserChangeCursor after, Instant before, int limit);
+    // Elimina físicamente como máximo 'limit' usuarios borrados antes de 'deletedBefore'; devuelve cuántos
+    int purgeDeleted(Instant deletedBefore, int limit);
+    // Fecha de borrado de la lápida más antigua pendiente de purgar
+    Optional<Instant> findOldestDeletedAt();
+    // Operaciones masivas: una sola consulta para comprobar existencia/unicidad y escrituras en batch JDBC
+    List<User> findAllByIdOrUsernameOrEmail(Collection<UUID> ids, Collection<String> usernames,
+                                            Collection<String> emails);
+    // Las escrituras masivas son todo o nada: si lanzan DuplicateUserKeyException no queda escrito ningún elemento
+    // del lote y la transacción en curso sigue siendo utilizable
+    void insertAll(List<User> users);
+    // Cada usuario lleva ya su nueva versión; solo se actualiza si la almacenada es la anterior.
+    // Devuelve los ids que realmente se han actualizado
+    Set<UUID> updateAllDetails(List<User> users);
+    // Devuelve los usuarios desactivados tal como han quedado (los ids inexistentes no aparecen)
+    List<User> deactivateAll(Collection<UUID> ids, Instant updatedAt);
+}
@@ -1,71 +1,173 @@
 package com.example.usercrud.application.service;
 
+import com.example.usercrud.application.port.in.BatchItemResult;
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
 import com.example.usercrud.application.port.in.UserServicePort;
+import com.example.usercrud.application.port.out.DuplicateUserKeyException;
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.application.port.out.UserEventOutboxPort;
+import com.example.usercrud.application.port.out.UserKeyFilterPort;
 import com.example.usercrud.application.port.out.UserRepositoryPort;
 import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserEvent;
+import com.example.usercrud.domain.UserIdGenerator;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.domain.exception.DuplicateEmailException;
+import com.example.usercrud.domain.exception.DuplicateUserException;
+import com.example.usercrud.domain.exception.DuplicateUsernameException;
+import com.example.usercrud.domain.exception.UserConcurrentModificationException;
+import com.example.usercrud.domain.exception.UserNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
-@Transactional
+@Transactional(timeout = UserService.WRITE_TIMEOUT_SECONDS)
 public class UserService implements UserServicePort {
     
+    static final int MAX_SEARCH_QUERY_LENGTH = 100;
+    // updated_at se fija antes del commit: una transacción que confirma tarde puede dejar una fila con un
+    // updated_at anterior al último cursor entregado. El feed solo devuelve cambios con esta antigüedad, que debe
+    // superar la duración de cualquier transacción de escritura. Por eso las escrituras tienen un tiempo máximo
+    // (Spring lo aplica como query timeout a cada sentencia, también a la que espera un bloqueo) y lo que sobra de
+    // la ventana cubre el desfase de reloj entre instancias: updated_at y el corte los fija el Clock de cada una, así
+    // que los relojes deben estar sincronizados (NTP) con bastante menos de esa diferencia
+    static final int WRITE_TIMEOUT_SECONDS = 3;
+    static final Duration CHANGES_SETTLE_WINDOW = Duration.ofSeconds(5);
+    
     private final UserRepositoryPort userRepository;
+    private final UserCachePort userCache;
+    private final UserKeyFilterPort userKeyFilter;
+    private final UserEventOutboxPort eventOutbox;
+    // Única fuente de tiempo: cada operación lo lee una vez y usa ese instante en todas sus escrituras
+    private final Clock clock;
+    private final UserIdGenerator idGenerator;
     
-    public UserService(UserRepositoryPort userRepository) {
+    public UserService(UserRepositoryPort userRepository, UserCachePort userCache, UserKeyFilterPort userKeyFilter,
+                       UserEventOutboxPort eventOutbox, Clock clock, UserIdGenerator idGenerator) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userKeyFilter = userKeyFilter;
+        this.eventOutbox = eventOutbox;
+        this.clock = clock;
+        this.idGenerator = idGenerator;
     }
     
     @Override
     public User createUser(String username, String email, String firstName, String lastName) {
-        // Validar que no exista un usuario con el mismo username o email
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalArgumentException("Username already exists: " + username);
-        }
-        if (userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email already exists: " + email);
+        // La unicidad de username y email la garantizan los índices únicos: un solo INSERT, sin carreras
+        User user = User.create(idGenerator.nextId(), username, email, firstName, lastName, now());
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateUserKeyException ex) {
+            throw duplicateKey(ex, username, email);
         }
-        
-        User user = new User(username, email, firstName, lastName);
-        return userRepository.save(user);
+        eventOutbox.append(UserEvent.of(UserEvent.Type.CREATED, user));
+        afterCommit(() -> {
+            userKeyFilter.add(username, email);
+            userCache.evictMissingUsername(username);
+            userCache.put(user);
+        });
+        return user;
     }
     
     @Override
     public User updateUser(UUID id, String username, String email, String firstName, String lastName) {
-        User user = getUserById(id);
-        
-        // Validar que no exista otro usuario con el mismo username o email
-        userRepository.findByUsername(username).ifPresent(existingUser -> {
-            if (!existingUser.getId().equals(id)) {
-                throw new IllegalArgumentException("Username already exists: " + username);
-            }
-        });
-        
-        userRepository.findByEmail(email).ifPresent(existingUser -> {
-            if (!existingUser.getId().equals(id)) {
-                throw new IllegalArgumentException("Email already exists: " + email);
+        return update(id, null, username, email, firstName, lastName);
+    }
+    
+    @Override
+    public User updateUser(UUID id, long expectedVersion, String username, String email, String firstName,
+                           String lastName) {
+        return update(id, expectedVersion, username, email, firstName, lastName);
+    }
+    
+    // Un único UPDATE condicional (WHERE id = ? AND version = ?): sin lectura previa ni conexión retenida entre medias
+    private User update(UUID id, Long expectedVersion, String username, String email, String firstName,
+                        String lastName) {
+        Optional<User> updated;
+        try {
+            updated = userRepository.updateDetails(id, expectedVersion, username, email, firstName, lastName,
+                    now());
+        } catch (DuplicateUserKeyException ex) {
+            throw duplicateKey(ex, username, email);
+        }
+        if (updated.isEmpty()) {
+            // Solo en el camino de fallo se distingue "no existe" de "versión obsoleta"
+            if (expectedVersion != null && userRepository.findById(id).isPresent()) {
+                throw new UserConcurrentModificationException(id, expectedVersion);
             }
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        User user = updated.get();
+        eventOutbox.append(UserEvent.of(UserEvent.Type.UPDATED, user));
+        afterCommit(() -> {
+            userKeyFilter.add(username, email);
+            // evict primero para soltar también la entrada del username anterior
+            userCache.evict(id, user.getVersion());
+            userCache.evictMissingUsername(username);
+            userCache.put(user);
         });
-        
-        user.update(username, email, firstName, lastName);
-        return userRepository.save(user);
+        return user;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    // SUPPORTS: un acierto de caché no debe reservar una conexión del pool
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User getUserById(UUID id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        Optional<User> cached = userCache.getById(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        User user = findExistingUser(id);
+        userCache.put(user);
+        return user;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+        Optional<User> cached = userCache.getByUsername(username);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        // Caché negativa: evita repetir la consulta ante ráfagas de logins con usernames inexistentes
+        if (userCache.isKnownMissingUsername(username)) {
+            throw new UserNotFoundException("User not found with username: " + username);
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            userCache.putMissingUsername(username);
+            throw new UserNotFoundException("User not found with username: " + username);
+        }
+        userCache.put(user.get());
+        return user.get();
     }
     
     @Override
@@ -80,25 +182,331 @@ public class UserService implements UserServicePort {
         return userRepository.findAllActive();
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public UserPage getUsers(UserCursor after, int limit, boolean activeOnly) {
+        checkLimit(limit);
+        // Se pide un elemento extra para saber si existe una página siguiente sin hacer un COUNT
+        return toPage(userRepository.findPage(after, limit + 1, activeOnly), limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserPage searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        checkLimit(limit);
+        String normalized = normalizeSearchQuery(query);
+        return toPage(userRepository.searchUsers(normalized, filter, after, limit + 1), limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(boolean activeOnly, Consumer<User> consumer) {
+        userRepository.streamAll(activeOnly, consumer);
+    }
+    
+    @Override
+    // Sin readOnly: va siempre al primario. En una réplica con retraso una fila anterior al corte podría no haber
+    // llegado todavía y el cursor la saltaría para siempre
+    @Transactional
+    public UserChangePage getChanges(UserChangeCursor since, int limit) {
+        checkLimit(limit);
+        Instant before = now().minus(CHANGES_SETTLE_WINDOW);
+        return toChangePage(userRepository.findChanges(since, before, limit + 1), since, limit);
+    }
+    
     @Override
     public void deactivateUser(UUID id) {
-        User user = getUserById(id);
-        user.deactivate();
-        userRepository.save(user);
+        changeActive(id, false);
     }
     
     @Override
     public void activateUser(UUID id) {
-        User user = getUserById(id);
-        user.activate();
-        userRepository.save(user);
+        changeActive(id, true);
+    }
+    
+    private void changeActive(UUID id, boolean active) {
+        User user = userRepository.updateActive(id, active, now())
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        eventOutbox.append(UserEvent.of(active ? UserEvent.Type.ACTIVATED : UserEvent.Type.DEACTIVATED, user));
+        afterCommit(() -> userCache.evict(id, user.getVersion()));
     }
     
     @Override
     public void deleteUser(UUID id) {
-        if (!userRepository.findById(id).isPresent()) {
-            throw new RuntimeException("User not found with id: " + id);
+        User user = userRepository.deleteById(id, now())
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        eventOutbox.append(UserEvent.deleted(id, user.getVersion(), user.getUpdatedAt()));
+        afterCommit(() -> userCache.evict(id, Long.MAX_VALUE));
+    }
+    
+    @Override
+    public List<BatchItemResult> createUsers(List<CreateUserCommand> commands) {
+        Instant now = now();
+        List<BatchItemResult> results = new ArrayList<>(commands.size());
+        List<User> toInsert = new ArrayList<>(commands.size());
+        planCreates(commands, true, now, results, toInsert);
+        try {
+            userRepository.insertAll(toInsert);
+        } catch (DuplicateUserKeyException ex) {
+            // El filtro solo conoce las claves escritas por esta instancia desde su última reconstrucción: una clave
+            // que descartó puede existir ya. El lote no se ha escrito; se comprueban todas sus claves en la BD y se
+            // reintenta una vez marcando como DUPLICATE las que chocan
+            results.clear();
+            toInsert.clear();
+            planCreates(commands, false, now, results, toInsert);
+            try {
+                userRepository.insertAll(toInsert);
+            } catch (DuplicateUserKeyException again) {
+                throw concurrentBatchConflict(again);
+            }
+        }
+        List<UserEvent> events = new ArrayList<>(toInsert.size());
+        for (User user : toInsert) {
+            events.add(UserEvent.of(UserEvent.Type.CREATED, user));
+        }
+        eventOutbox.appendAll(events);
+        afterCommit(() -> {
+            for (User user : toInsert) {
+                userKeyFilter.add(user.getUsername(), user.getEmail());
+                userCache.evictMissingUsername(user.getUsername());
+            }
+        });
+        return results;
+    }
+    
+    @Override
+    public List<BatchItemResult> updateUsers(List<UpdateUserCommand> commands) {
+        Instant now = now();
+        BatchItemResult[] results = new BatchItemResult[commands.size()];
+        List<User> toUpdate = new ArrayList<>(commands.size());
+        Map<UUID, Integer> indexById = new HashMap<>();
+        planUpdates(commands, true, now, results, toUpdate, indexById);
+        Set<UUID> updatedIds;
+        try {
+            updatedIds = userRepository.updateAllDetails(toUpdate);
+        } catch (DuplicateUserKeyException ex) {
+            // Igual que en createUsers: se repite la comprobación sin filtro y se reintenta una vez
+            toUpdate.clear();
+            indexById.clear();
+            planUpdates(commands, false, now, results, toUpdate, indexById);
+            try {
+                updatedIds = userRepository.updateAllDetails(toUpdate);
+            } catch (DuplicateUserKeyException again) {
+                throw concurrentBatchConflict(again);
+            }
+        }
+        // Filas modificadas o borradas entre la consulta y el UPDATE
+        List<UserEvent> events = new ArrayList<>(updatedIds.size());
+        for (User user : toUpdate) {
+            if (updatedIds.contains(user.getId())) {
+                events.add(UserEvent.of(UserEvent.Type.UPDATED, user));
+            } else {
+                int index = indexById.get(user.getId());
+                results[index] = BatchItemResult.conflict(index, user.getId());
+            }
+        }
+        eventOutbox.appendAll(events);
+        afterCommit(() -> {
+            for (User user : toUpdate) {
+                userKeyFilter.add(user.getUsername(), user.getEmail());
+                userCache.evict(user.getId(), user.getVersion());
+                userCache.evictMissingUsername(user.getUsername());
+            }
+        });
+        return Arrays.asList(results);
+    }
+    
+    @Override
+    public List<BatchItemResult> deactivateUsers(Collection<UUID> ids) {
+        List<User> users = userRepository.deactivateAll(new LinkedHashSet<>(ids), now());
+        Set<UUID> deactivated = new HashSet<>(users.size() * 2);
+        List<UserEvent> events = new ArrayList<>(users.size());
+        for (User user : users) {
+            deactivated.add(user.getId());
+            events.add(UserEvent.of(UserEvent.Type.DEACTIVATED, user));
+        }
+        eventOutbox.appendAll(events);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        int index = 0;
+        for (UUID id : ids) {
+            results.add(deactivated.contains(id)
+                    ? BatchItemResult.deactivated(index, id)
+                    : BatchItemResult.notFound(index, id));
+            index++;
+        }
+        afterCommit(() -> {
+            for (User user : users) {
+                userCache.evict(user.getId(), user.getVersion());
+            }
+        });
+        return results;
+    }
+    
+    // Validación y paginación compartidas con ReactiveUserService para que ambas pilas respondan igual
+    static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+    }
+    
+    static String normalizeSearchQuery(String query) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || normalized.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Search query must have between 1 and " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        return normalized;
+    }
+    
+    // 'users' trae hasta limit + 1 elementos: el extra solo indica que hay página siguiente
+    static UserPage toPage(List<User> users, int limit) {
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, limit);
+        return new UserPage(page, UserCursor.of(page.get(limit - 1)));
+    }
+    
+    static UserChangePage toChangePage(List<UserChange> changes, UserChangeCursor since, int limit) {
+        if (changes.isEmpty()) {
+            return new UserChangePage(changes, since, false);
+        }
+        boolean hasMore = changes.size() > limit;
+        List<UserChange> page = hasMore ? changes.subList(0, limit) : changes;
+        return new UserChangePage(page, UserChangeCursor.of(page.get(page.size() - 1)), hasMore);
+    }
+    
+    // Resuelve cada elemento del lote contra la BD: con useKeyFilter solo se buscan las claves que el filtro no
+    // descarta y, si no queda ninguna, no hay consulta
+    private void planCreates(List<CreateUserCommand> commands, boolean useKeyFilter, Instant now,
+                             List<BatchItemResult> results, List<User> toInsert) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (CreateUserCommand command : commands) {
+            if (!useKeyFilter || userKeyFilter.mightContainUsername(command.getUsername())) {
+                usernames.add(command.getUsername());
+            }
+            if (!useKeyFilter || userKeyFilter.mightContainEmail(command.getEmail())) {
+                emails.add(command.getEmail());
+            }
+        }
+        
+        // Una única consulta para todo el lote en lugar de dos exists por usuario
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        if (!usernames.isEmpty() || !emails.isEmpty()) {
+            for (User existing : userRepository.findAllByIdOrUsernameOrEmail(List.of(), usernames, emails)) {
+                takenUsernames.add(existing.getUsername());
+                takenEmails.add(existing.getEmail());
+            }
+        }
+        
+        for (int i = 0; i < commands.size(); i++) {
+            CreateUserCommand command = commands.get(i);
+            if (takenUsernames.contains(command.getUsername())) {
+                results.add(BatchItemResult.duplicate(i, null, "Username already exists: " + command.getUsername()));
+            } else if (takenEmails.contains(command.getEmail())) {
+                results.add(BatchItemResult.duplicate(i, null, "Email already exists: " + command.getEmail()));
+            } else {
+                // Los siguientes elementos del lote tampoco pueden reutilizar estas claves
+                takenUsernames.add(command.getUsername());
+                takenEmails.add(command.getEmail());
+                User user = User.create(idGenerator.nextId(), command.getUsername(), command.getEmail(),
+                        command.getFirstName(), command.getLastName(), now);
+                toInsert.add(user);
+                results.add(BatchItemResult.created(i, user));
+            }
+        }
+    }
+    
+    private void planUpdates(List<UpdateUserCommand> commands, boolean useKeyFilter, Instant now,
+                             BatchItemResult[] results, List<User> toUpdate, Map<UUID, Integer> indexById) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UpdateUserCommand command : commands) {
+            ids.add(command.getId());
+            // Las claves que el filtro descarta no pueden tener otro dueño
+            if (!useKeyFilter || userKeyFilter.mightContainUsername(command.getUsername())) {
+                usernames.add(command.getUsername());
+            }
+            if (!useKeyFilter || userKeyFilter.mightContainEmail(command.getEmail())) {
+                emails.add(command.getEmail());
+            }
+        }
+        
+        // La misma consulta devuelve los usuarios a actualizar y los que ya ocupan sus claves
+        Map<UUID, User> existingById = new HashMap<>();
+        Map<String, UUID> usernameOwners = new HashMap<>();
+        Map<String, UUID> emailOwners = new HashMap<>();
+        for (User existing : userRepository.findAllByIdOrUsernameOrEmail(ids, usernames, emails)) {
+            existingById.put(existing.getId(), existing);
+            usernameOwners.put(existing.getUsername(), existing.getId());
+            emailOwners.put(existing.getEmail(), existing.getId());
+        }
+        
+        for (int i = 0; i < commands.size(); i++) {
+            UpdateUserCommand command = commands.get(i);
+            UUID id = command.getId();
+            User existing = existingById.get(id);
+            UUID usernameOwner = usernameOwners.get(command.getUsername());
+            UUID emailOwner = emailOwners.get(command.getEmail());
+            if (existing == null) {
+                results[i] = BatchItemResult.notFound(i, id);
+            } else if (indexById.containsKey(id)) {
+                results[i] = BatchItemResult.duplicate(i, id, "User updated twice in the same batch: " + id);
+            } else if (usernameOwner != null && !usernameOwner.equals(id)) {
+                results[i] = BatchItemResult.duplicate(i, id, "Username already exists: " + command.getUsername());
+            } else if (emailOwner != null && !emailOwner.equals(id)) {
+                results[i] = BatchItemResult.duplicate(i, id, "Email already exists: " + command.getEmail());
+            } else {
+                usernameOwners.put(command.getUsername(), id);
+                emailOwners.put(command.getEmail(), id);
+                User updated = existing.withDetails(command.getUsername(), command.getEmail(),
+                        command.getFirstName(), command.getLastName(), now);
+                toUpdate.add(updated);
+                indexById.put(id, i);
+                results[i] = BatchItemResult.updated(i, updated);
+            }
+        }
+    }
+    
+    private DuplicateUserException duplicateKey(DuplicateUserKeyException ex, String username, String email) {
+        if (ex.getKey() == DuplicateUserKeyException.Key.USERNAME) {
+            return new DuplicateUsernameException("Username already exists: " + username);
+        }
+        return new DuplicateEmailException("Email already exists: " + email);
+    }
+    
+    private DuplicateUserException concurrentBatchConflict(DuplicateUserKeyException ex) {
+        if (ex.getKey() == DuplicateUserKeyException.Key.USERNAME) {
+            return new DuplicateUsernameException("Username already exists (concurrent modification), retry the batch");
+        }
+        return new DuplicateEmailException("Email already exists (concurrent modification), retry the batch");
+    }
+    
+    private User findExistingUser(UUID id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+    }
+    
+    // PostgreSQL guarda microsegundos: truncado aquí, el User que se devuelve y se cachea es idéntico (ETag incluido)
+    // al que se lee después de la BD para la misma versión
+    private Instant now() {
+        return clock.instant().truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    // Las invalidaciones se aplican tras el commit; antes, una lectura concurrente podría recargar el valor anterior
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        userRepository.deleteById(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.usercrud.domain;
+
+import java.util.UUID;
+
+// UUIDv4: ids totalmente aleatorios (el comportamiento original)
+public final class RandomUserIdGenerator implements UserIdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.usercrud.domain;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// UUIDv7 (RFC 9562): 48 bits de milisegundos Unix, versión, 12 bits de contador y 62 bits aleatorios. Los ids
+// nuevos crecen con el tiempo y las inserciones caen al final del índice de la clave primaria en vez de en páginas
+// aleatorias. Sin bloqueos: cada hilo lleva su propio contador, que hace sus ids estrictamente crecientes dentro
+// del mismo milisegundo; entre hilos la unicidad la dan los bits aleatorios
+public final class TimeOrderedUserIdGenerator implements UserIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+    // El contador arranca en un valor aleatorio de la mitad inferior para dejar margen antes de desbordar
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+
+    private final Clock clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public TimeOrderedUserIdGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        State current = state.get();
+        long millis = clock.millis();
+        if (millis > current.millis) {
+            current.millis = millis;
+            current.counter = random.nextInt(COUNTER_SEED_BOUND);
+        } else if (current.counter < MAX_COUNTER) {
+            // Mismo milisegundo o reloj hacia atrás: se sigue sobre el último instante emitido
+            current.counter++;
+        } else {
+            // Contador agotado: se toma prestado el milisegundo siguiente para no perder el orden
+            current.millis++;
+            current.counter = random.nextInt(COUNTER_SEED_BOUND);
+        }
+        long mostSignificant = (current.millis << 16) | VERSION | current.counter;
+        long leastSignificant = (random.nextLong() >>> 2) | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static final class State {
+        long millis = -1;
+        int counter;
+    }
+}
@@ -1,36 +1,27 @@
 package com.example.usercrud.domain;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.UUID;
 
-public class User {
-    private UUID id;
-    private String username;
-    private String email;
-    private String firstName;
-    private String lastName;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-    private boolean active;
-
-    public User() {
-        this.id = UUID.randomUUID();
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-        this.active = true;
-    }
-
-    public User(String username, String email, String firstName, String lastName) {
-        this();
-        this.username = username;
-        this.email = email;
-        this.firstName = firstName;
-        this.lastName = lastName;
-    }
+// Inmutable: se comparte sin copias entre persistencia, caché y serialización. Cada modificación devuelve una
+// instancia nueva con la versión siguiente y el instante que recibe (una sola lectura del reloj por operación)
+public final class User {
+    private final UUID id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final boolean active;
+    // Versión para bloqueo optimista: se incrementa en cada modificación
+    private final long version;
+    // Se calcula la primera vez que se pide; la carrera es benigna (como String.hash)
+    private String fullName;
 
     // Constructor completo para reconstruir desde persistencia
-    public User(UUID id, String username, String email, String firstName, String lastName, 
-                LocalDateTime createdAt, LocalDateTime updatedAt, boolean active) {
+    public User(UUID id, String username, String email, String firstName, String lastName,
+                Instant createdAt, Instant updatedAt, boolean active, long version) {
         this.id = id;
         this.username = username;
         this.email = email;
@@ -39,24 +30,20 @@ public class User {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.active = active;
+        this.version = version;
     }
 
-    public void update(String username, String email, String firstName, String lastName) {
-        this.username = username;
-        this.email = email;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.updatedAt = LocalDateTime.now();
+    public static User create(UUID id, String username, String email, String firstName, String lastName,
+                              Instant now) {
+        return new User(id, username, email, firstName, lastName, now, now, true, 0);
     }
 
-    public void deactivate() {
-        this.active = false;
-        this.updatedAt = LocalDateTime.now();
+    public User withDetails(String username, String email, String firstName, String lastName, Instant updatedAt) {
+        return new User(id, username, email, firstName, lastName, createdAt, updatedAt, active, version + 1);
     }
 
-    public void activate() {
-        this.active = true;
-        this.updatedAt = LocalDateTime.now();
+    public User withActive(boolean active, Instant updatedAt) {
+        return new User(id, username, email, firstName, lastName, createdAt, updatedAt, active, version + 1);
     }
 
     // Getters
@@ -80,11 +67,11 @@ public class User {
         return lastName;
     }
 
-    public LocalDateTime getCreatedAt() {
+    public Instant getCreatedAt() {
         return createdAt;
     }
 
-    public LocalDateTime getUpdatedAt() {
+    public Instant getUpdatedAt() {
         return updatedAt;
     }
 
@@ -92,7 +79,16 @@ public class User {
         return active;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getFullName() {
-        return firstName + " " + lastName;
+        String name = fullName;
+        if (name == null) {
+            name = firstName + " " + lastName;
+            fullName = name;
+        }
+        return name;
     }
-}
\ No newline at end of file
+}
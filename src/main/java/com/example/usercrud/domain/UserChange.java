@@ -0,0 +1,58 @@
+package com.example.usercrud.domain;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+// Estado actual de un usuario modificado (alta, edición, activación) o su lápida si se ha borrado.
+// El feed devuelve solo el último cambio de cada usuario, no el historial
+public final class UserChange {
+
+    public enum Type {
+        UPSERTED,
+        DELETED
+    }
+
+    private final Type type;
+    private final UUID userId;
+    private final long version;
+    private final Instant changedAt;
+    private final User user;
+
+    public UserChange(Type type, UUID userId, long version, Instant changedAt, User user) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.userId = Objects.requireNonNull(userId, "userId");
+        this.version = version;
+        this.changedAt = Objects.requireNonNull(changedAt, "changedAt");
+        this.user = user;
+    }
+
+    public static UserChange upserted(User user) {
+        return new UserChange(Type.UPSERTED, user.getId(), user.getVersion(), user.getUpdatedAt(), user);
+    }
+
+    public static UserChange deleted(UUID userId, long version, Instant deletedAt) {
+        return new UserChange(Type.DELETED, userId, version, deletedAt, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    // null en DELETED
+    public User getUser() {
+        return user;
+    }
+}
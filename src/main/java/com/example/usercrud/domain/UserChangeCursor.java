@@ -0,0 +1,28 @@
+package com.example.usercrud.domain;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+// Posición en el feed de cambios: (changedAt, id) del último cambio devuelto
+public final class UserChangeCursor {
+    private final Instant changedAt;
+    private final UUID id;
+
+    public UserChangeCursor(Instant changedAt, UUID id) {
+        this.changedAt = Objects.requireNonNull(changedAt, "changedAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public static UserChangeCursor of(UserChange change) {
+        return new UserChangeCursor(change.getChangedAt(), change.getUserId());
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.usercrud.domain;
+
+import java.util.List;
+
+public final class UserChangePage {
+    private final List<UserChange> changes;
+    private final UserChangeCursor nextCursor;
+    private final boolean hasMore;
+
+    public UserChangePage(List<UserChange> changes, UserChangeCursor nextCursor, boolean hasMore) {
+        this.changes = List.copyOf(changes);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<UserChange> getChanges() {
+        return changes;
+    }
+
+    // Cursor para la siguiente consulta; no cambia si no hay cambios nuevos (null solo si aún no ha habido ninguno)
+    public UserChangeCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    // true si hay más cambios disponibles ya, sin esperar
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
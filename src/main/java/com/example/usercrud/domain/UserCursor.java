@@ -0,0 +1,28 @@
+package com.example.usercrud.domain;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+// Posición de paginación por keyset: (createdAt, id) del último usuario devuelto
+public final class UserCursor {
+    private final Instant createdAt;
+    private final UUID id;
+
+    public UserCursor(Instant createdAt, UUID id) {
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public static UserCursor of(User user) {
+        return new UserCursor(user.getCreatedAt(), user.getId());
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usercrud.domain;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+// Cambio de un usuario para consumidores externos. 'user' es el estado tras el cambio (null en DELETED);
+// (userId, version) identifica el cambio y permite a los consumidores descartar duplicados y desórdenes
+public final class UserEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        ACTIVATED,
+        DEACTIVATED,
+        DELETED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final UUID userId;
+    private final long version;
+    private final Instant occurredAt;
+    private final User user;
+
+    public UserEvent(long sequence, Type type, UUID userId, long version, Instant occurredAt, User user) {
+        this.sequence = sequence;
+        this.type = Objects.requireNonNull(type, "type");
+        this.userId = Objects.requireNonNull(userId, "userId");
+        this.version = version;
+        this.occurredAt = Objects.requireNonNull(occurredAt, "occurredAt");
+        this.user = user;
+    }
+
+    public static UserEvent of(Type type, User user) {
+        return new UserEvent(0, type, user.getId(), user.getVersion(), user.getUpdatedAt(), user);
+    }
+
+    public static UserEvent deleted(UUID userId, long version, Instant occurredAt) {
+        return new UserEvent(0, Type.DELETED, userId, version, occurredAt, null);
+    }
+
+    // Posición en el outbox; 0 mientras no se ha guardado
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.usercrud.domain;
+
+import java.util.UUID;
+
+// Origen de los ids de los usuarios nuevos; los existentes nunca se reescriben, así que cambiar de
+// implementación no requiere migrar datos
+public interface UserIdGenerator {
+
+    UUID nextId();
+}
@@ -0,0 +1,26 @@
+package com.example.usercrud.domain;
+
+import java.util.List;
+
+public final class UserPage {
+    private final List<User> users;
+    private final UserCursor nextCursor;
+
+    public UserPage(List<User> users, UserCursor nextCursor) {
+        this.users = List.copyOf(users);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    // null cuando no hay más páginas
+    public UserCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.usercrud.domain;
+
+import java.util.Objects;
+
+// Filtros de búsqueda de usuarios: tipo de coincidencia sobre username, email, nombre y apellido, y estado
+public final class UserSearchFilter {
+
+    public enum Match {
+        // El campo empieza por la consulta (sin distinguir mayúsculas)
+        PREFIX,
+        // Similitud por trigramas con alguna palabra de los campos (tolera erratas)
+        FUZZY
+    }
+
+    private final Match match;
+    private final Boolean active;
+
+    public UserSearchFilter(Match match, Boolean active) {
+        this.match = Objects.requireNonNull(match, "match");
+        this.active = active;
+    }
+
+    public Match getMatch() {
+        return match;
+    }
+
+    // null = activos e inactivos
+    public Boolean getActive() {
+        return active;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.usercrud.domain.exception;
+
+// Email ya en uso por otro usuario
+public class DuplicateEmailException extends DuplicateUserException {
+    
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+}
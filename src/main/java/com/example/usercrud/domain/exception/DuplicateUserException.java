@@ -0,0 +1,9 @@
+package com.example.usercrud.domain.exception;
+
+// Username o email ya en uso por otro usuario
+public abstract class DuplicateUserException extends UserDomainException {
+    
+    protected DuplicateUserException(String message) {
+        super(message);
+    }
+}
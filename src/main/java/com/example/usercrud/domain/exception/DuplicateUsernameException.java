@@ -0,0 +1,9 @@
+package com.example.usercrud.domain.exception;
+
+// Username ya en uso por otro usuario
+public class DuplicateUsernameException extends DuplicateUserException {
+    
+    public DuplicateUsernameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.usercrud.domain.exception;
+
+import java.util.UUID;
+
+// La versión esperada ya no coincide con la almacenada: otro cliente modificó el usuario
+public class UserConcurrentModificationException extends UserDomainException {
+    
+    private final UUID id;
+    private final long expectedVersion;
+    
+    public UserConcurrentModificationException(UUID id, long expectedVersion) {
+        super("User was modified concurrently: " + id + " (expected version " + expectedVersion + ")");
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.usercrud.domain.exception;
+
+// Base de los errores esperados del dominio (no encontrado, duplicado, conflicto de versión). Son parte del flujo
+// normal y se traducen a un código HTTP: no guardan la traza, cuyo relleno es lo más caro de crear una excepción
+public abstract class UserDomainException extends RuntimeException {
+    
+    protected UserDomainException(String message) {
+        super(message, null, false, false);
+    }
+}
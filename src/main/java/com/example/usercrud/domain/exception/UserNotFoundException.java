@@ -0,0 +1,9 @@
+package com.example.usercrud.domain.exception;
+
+// El usuario buscado no existe (o ya no existe)
+public class UserNotFoundException extends UserDomainException {
+    
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
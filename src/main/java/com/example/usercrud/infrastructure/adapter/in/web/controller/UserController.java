@@ -1,10 +1,28 @@
 package com.example.usercrud.infrastructure.adapter.in.web.controller;
 
+import com.example.usercrud.application.port.in.BatchItemResult;
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
 import com.example.usercrud.application.port.in.UserServicePort;
 import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchCreateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchDeactivateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchItemResultDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUsersDto;
 import com.example.usercrud.infrastructure.adapter.in.web.dto.CreateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserChangeDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserChangePageDto;
 import com.example.usercrud.infrastructure.adapter.in.web.dto.UpdateUserDto;
-import com.example.usercrud.infrastructure.adapter.in.web.dto.UserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserPageDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -12,39 +30,65 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "Users", description = "User management API")
+// Pila servlet; con el perfil reactive atiende las mismas rutas ReactiveUserController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
     
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    // Secuencia CBOR (RFC 8742): valores CBOR concatenados, el equivalente binario de NDJSON
+    static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 1000;
+    
     private final UserServicePort userService;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter cborWriter;
     
-    public UserController(UserServicePort userService) {
+    public UserController(UserServicePort userService, ObjectMapper objectMapper,
+                          MappingJackson2CborHttpMessageConverter cborConverter) {
         this.userService = userService;
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cborWriter = cborConverter.getObjectMapper().writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     @PostMapping
     @Operation(summary = "Create a new user")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input or user already exists")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Username or email already in use")
     })
-    public ResponseEntity<UserDto> createUser(@Valid @RequestBody CreateUserDto createDto) {
+    public ResponseEntity<User> createUser(@Valid @RequestBody CreateUserDto createDto) {
         User user = userService.createUser(
             createDto.getUsername(),
             createDto.getEmail(),
             createDto.getFirstName(),
             createDto.getLastName()
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(user));
+        return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
     
     @GetMapping("/{id}")
@@ -52,11 +96,12 @@ public class UserController {
                parameters = @Parameter(name = "id", description = "User ID", required = true, in = ParameterIn.PATH))
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found"),
+        @ApiResponse(responseCode = "304", description = "User not modified (If-None-Match / If-Modified-Since)"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserDto> getUserById(@PathVariable("id") UUID id) {
+    public ResponseEntity<User> getUserById(@PathVariable("id") UUID id, WebRequest request) {
         User user = userService.getUserById(id);
-        return ResponseEntity.ok(toDto(user));
+        return conditionalOk(user, request);
     }
     
     @GetMapping("/username/{username}")
@@ -64,28 +109,178 @@ public class UserController {
                parameters = @Parameter(name = "username", description = "Username", required = true, in = ParameterIn.PATH))
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found"),
+        @ApiResponse(responseCode = "304", description = "User not modified (If-None-Match / If-Modified-Since)"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserDto> getUserByUsername(@PathVariable("username") String username) {
+    public ResponseEntity<User> getUserByUsername(@PathVariable("username") String username, WebRequest request) {
         User user = userService.getUserByUsername(username);
-        return ResponseEntity.ok(toDto(user));
+        return conditionalOk(user, request);
     }
     
     @GetMapping
-    @Operation(summary = "Get all users")
-    @ApiResponse(responseCode = "200", description = "List of all users")
-    public ResponseEntity<List<UserDto>> getAllUsers(
+    @Operation(summary = "Get users page (keyset pagination)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of users"),
+        @ApiResponse(responseCode = "304", description = "Page not modified (If-None-Match)"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<UserPageDto> getAllUsers(
             @Parameter(description = "Filter only active users", name = "activeOnly") 
-            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
-        List<User> users = activeOnly ? 
-            userService.getAllActiveUsers() : 
-            userService.getAllUsers();
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page", name = "cursor")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")", name = "limit")
+            @RequestParam(name = "limit", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) Integer limit,
+            WebRequest request) {
+        UserPage page = userService.getUsers(
+            UserCursorCodec.decode(cursor),
+            Math.min(limit, MAX_PAGE_SIZE),
+            activeOnly
+        );
+        
+        String nextCursor = UserCursorCodec.encode(page.getNextCursor());
+        // Solo el ETag: el updatedAt más reciente de la página no cambia si una fila se borra, deja de estar activa
+        // o sale de la ventana, así que If-Modified-Since daría un 304 falso
+        if (request.checkNotModified(UserEtags.ofPage(page.getUsers(), nextCursor))) {
+            return null;
+        }
+        
+        return ResponseEntity.ok(new UserPageDto(page.getUsers(), nextCursor));
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search users by username, email, first name or last name (keyset pagination)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of matching users ordered by creation date"),
+        @ApiResponse(responseCode = "400", description = "Invalid query, match, cursor or limit")
+    })
+    public ResponseEntity<UserPageDto> searchUsers(
+            @Parameter(description = "Text to search (1-100 characters, case insensitive)", name = "q", required = true)
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "prefix: fields starting with q; fuzzy: trigram similarity (typo tolerant)",
+                       name = "match")
+            @RequestParam(name = "match", required = false, defaultValue = "prefix") String match,
+            @Parameter(description = "Filter by active state (omit for both)", name = "active")
+            @RequestParam(name = "active", required = false) Boolean active,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page", name = "cursor")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")", name = "limit")
+            @RequestParam(name = "limit", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) Integer limit) {
+        UserSearchFilter filter = new UserSearchFilter(parseMatch(match), active);
+        UserPage page = userService.searchUsers(
+            query,
+            filter,
+            UserCursorCodec.decode(cursor),
+            Math.min(limit, MAX_PAGE_SIZE)
+        );
         
-        List<UserDto> dtos = users.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(new UserPageDto(page.getUsers(), UserCursorCodec.encode(page.getNextCursor())));
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Users created, updated or deleted since a cursor (incremental sync)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes in change order; pass nextCursor as since next time"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<UserChangePageDto> getChanges(
+            @Parameter(description = "nextCursor of the previous call (omit to receive every user)", name = "since")
+            @RequestParam(name = "since", required = false) String since,
+            @Parameter(description = "Maximum number of changes (max " + MAX_PAGE_SIZE + ")", name = "limit")
+            @RequestParam(name = "limit", required = false, defaultValue = "" + MAX_PAGE_SIZE) Integer limit) {
+        UserChangePage page = userService.getChanges(
+            UserCursorCodec.decodeChange(since),
+            Math.min(limit, MAX_PAGE_SIZE)
+        );
         
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(toDto(page));
+    }
+    
+    static UserChangePageDto toDto(UserChangePage page) {
+        List<UserChangeDto> dtos = new ArrayList<>(page.getChanges().size());
+        for (UserChange change : page.getChanges()) {
+            dtos.add(new UserChangeDto(
+                change.getType().name(),
+                change.getUserId(),
+                change.getVersion(),
+                change.getChangedAt(),
+                change.getUser()
+            ));
+        }
+        return new UserChangePageDto(dtos, UserCursorCodec.encode(page.getNextCursor()), page.hasMore());
+    }
+    
+    static UserSearchFilter.Match parseMatch(String match) {
+        try {
+            return UserSearchFilter.Match.valueOf(match.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid match: " + match + " (expected prefix or fuzzy)");
+        }
+    }
+    
+    @GetMapping(produces = NDJSON_VALUE)
+    @Operation(summary = "Stream all users as NDJSON (Accept: application/x-ndjson)")
+    @ApiResponse(responseCode = "200", description = "One user per line")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(
+            @Parameter(description = "Filter only active users", name = "activeOnly") 
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        return streamValues(activeOnly, ndjsonWriter, NDJSON_VALUE, true);
+    }
+    
+    @GetMapping(produces = CBOR_SEQ_VALUE)
+    @Operation(summary = "Stream all users as a CBOR sequence (Accept: application/cbor-seq)")
+    @ApiResponse(responseCode = "200", description = "One CBOR value per user")
+    public ResponseEntity<StreamingResponseBody> streamAllUsersCbor(
+            @Parameter(description = "Filter only active users", name = "activeOnly")
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        return streamValues(activeOnly, cborWriter, CBOR_SEQ_VALUE, false);
+    }
+    
+    @GetMapping(produces = UserCsvWriter.MEDIA_TYPE)
+    @Operation(summary = "Stream all users as CSV (Accept: text/csv)")
+    @ApiResponse(responseCode = "200", description = "Header row and one row per user")
+    public ResponseEntity<StreamingResponseBody> streamAllUsersCsv(
+            @Parameter(description = "Filter only active users", name = "activeOnly")
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        StreamingResponseBody body = outputStream -> {
+            UserCsvWriter csv = new UserCsvWriter(outputStream);
+            userService.streamUsers(activeOnly, user -> {
+                try {
+                    csv.write(user);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            csv.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(UserCsvWriter.MEDIA_TYPE + ";charset=UTF-8"))
+                .body(body);
+    }
+    
+    // Cada fila se escribe según llega del cursor JDBC; no se acumula ninguna lista en memoria
+    private ResponseEntity<StreamingResponseBody> streamValues(boolean activeOnly, ObjectWriter writer,
+                                                               String mediaType, boolean newlineDelimited) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                if (newlineDelimited) {
+                    generator.setRootValueSeparator(null);
+                }
+                userService.streamUsers(activeOnly, user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                        if (newlineDelimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(mediaType))
+                .body(body);
     }
     
     @PutMapping("/{id}")
@@ -94,19 +289,44 @@ public class UserController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input"),
-        @ApiResponse(responseCode = "404", description = "User not found")
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "409",
+                     description = "Username or email already in use, or user modified since the If-Match ETag"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not contain an ETag of this user")
     })
-    public ResponseEntity<UserDto> updateUser(
+    public ResponseEntity<User> updateUser(
             @PathVariable("id") UUID id,
-            @Valid @RequestBody UpdateUserDto updateDto) {
-        User user = userService.updateUser(
-            id,
-            updateDto.getUsername(),
-            updateDto.getEmail(),
-            updateDto.getFirstName(),
-            updateDto.getLastName()
-        );
-        return ResponseEntity.ok(toDto(user));
+            @Valid @RequestBody UpdateUserDto updateDto,
+            @Parameter(description = "ETag previously returned for this user", name = "If-Match")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        User user;
+        if (ifMatch == null || UserEtags.isWildcard(ifMatch)) {
+            user = userService.updateUser(
+                id,
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            );
+        } else {
+            // La versión del ETag se comprueba en el propio UPDATE (WHERE version = ?)
+            Long expectedVersion = UserEtags.expectedVersion(ifMatch, id);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            user = userService.updateUser(
+                id,
+                expectedVersion,
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            );
+        }
+        return ResponseEntity.ok()
+                .eTag(UserEtags.of(user))
+                .lastModified(UserEtags.lastModified(user))
+                .body(user);
     }
     
     @PatchMapping("/{id}/deactivate")
@@ -145,17 +365,75 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
     
-    private UserDto toDto(User user) {
-        return new UserDto(
-            user.getId(),
-            user.getUsername(),
-            user.getEmail(),
-            user.getFirstName(),
-            user.getLastName(),
-            user.getFullName(),
-            user.getCreatedAt(),
-            user.getUpdatedAt(),
-            user.isActive()
-        );
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in bulk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item result (CREATED or DUPLICATE)"),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> createUsers(@Valid @RequestBody BatchCreateUsersDto batchDto) {
+        List<CreateUserCommand> commands = new ArrayList<>(batchDto.getUsers().size());
+        for (CreateUserDto createDto : batchDto.getUsers()) {
+            commands.add(new CreateUserCommand(
+                createDto.getUsername(),
+                createDto.getEmail(),
+                createDto.getFirstName(),
+                createDto.getLastName()
+            ));
+        }
+        return ResponseEntity.ok(toDtos(userService.createUsers(commands)));
+    }
+    
+    @PutMapping("/batch")
+    @Operation(summary = "Update users in bulk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item result (UPDATED, DUPLICATE or NOT_FOUND)"),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> updateUsers(@Valid @RequestBody BatchUpdateUsersDto batchDto) {
+        List<UpdateUserCommand> commands = new ArrayList<>(batchDto.getUsers().size());
+        for (BatchUpdateUserDto updateDto : batchDto.getUsers()) {
+            commands.add(new UpdateUserCommand(
+                updateDto.getId(),
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            ));
+        }
+        return ResponseEntity.ok(toDtos(userService.updateUsers(commands)));
+    }
+    
+    @PatchMapping("/batch/deactivate")
+    @Operation(summary = "Deactivate users in bulk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item result (DEACTIVATED or NOT_FOUND)"),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> deactivateUsers(
+            @Valid @RequestBody BatchDeactivateUsersDto batchDto) {
+        return ResponseEntity.ok(toDtos(userService.deactivateUsers(batchDto.getIds())));
+    }
+    
+    // Con If-None-Match/If-Modified-Since vigentes se responde 304 sin serializar el usuario
+    private ResponseEntity<User> conditionalOk(User user, WebRequest request) {
+        if (request.checkNotModified(UserEtags.of(user), UserEtags.lastModified(user))) {
+            return null;
+        }
+        return ResponseEntity.ok(user);
+    }
+    
+    static List<BatchItemResultDto> toDtos(List<BatchItemResult> results) {
+        List<BatchItemResultDto> dtos = new ArrayList<>(results.size());
+        for (BatchItemResult result : results) {
+            dtos.add(new BatchItemResultDto(
+                result.getIndex(),
+                result.getStatus().name(),
+                result.getId(),
+                result.getUser(),
+                result.getMessage()
+            ));
+        }
+        return dtos;
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.usercrud.infrastructure.adapter.in.web.controller;
+
+import com.example.usercrud.domain.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Exportación CSV (RFC 4180): los nombres de columna van una sola vez en la cabecera en lugar de repetirse en cada
+// fila como en JSON. fullName se omite porque se deriva de firstName y lastName
+final class UserCsvWriter {
+    
+    static final String MEDIA_TYPE = "text/csv";
+    private static final String HEADER = "id,username,email,firstName,lastName,createdAt,updatedAt,active,version";
+    private static final String LINE_END = "\r\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Writer out;
+    
+    UserCsvWriter(OutputStream outputStream) throws IOException {
+        this(outputStream, true);
+    }
+    
+    // Sin cabecera para los fragmentos que siguen al primero (exportación reactiva por bloques)
+    UserCsvWriter(OutputStream outputStream, boolean header) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (header) {
+            out.write(HEADER);
+            out.write(LINE_END);
+        }
+    }
+    
+    void write(User user) throws IOException {
+        out.write(user.getId().toString());
+        out.write(',');
+        writeText(user.getUsername());
+        out.write(',');
+        writeText(user.getEmail());
+        out.write(',');
+        writeText(user.getFirstName());
+        out.write(',');
+        writeText(user.getLastName());
+        out.write(',');
+        out.write(user.getCreatedAt().toString());
+        out.write(',');
+        out.write(user.getUpdatedAt().toString());
+        out.write(',');
+        out.write(user.isActive() ? "true" : "false");
+        out.write(',');
+        out.write(Long.toString(user.getVersion()));
+        out.write(LINE_END);
+    }
+    
+    void flush() throws IOException {
+        out.flush();
+    }
+    
+    // Entre comillas solo si hace falta, duplicando las comillas internas
+    private void writeText(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+    
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
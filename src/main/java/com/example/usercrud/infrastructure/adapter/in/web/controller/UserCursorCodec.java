@@ -0,0 +1,91 @@
+package com.example.usercrud.infrastructure.adapter.in.web.controller;
+
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Codifica los cursores de paginación y del feed de cambios como tokens opacos para el cliente
+final class UserCursorCodec {
+    
+    private static final char SEPARATOR = '|';
+    
+    private UserCursorCodec() {
+    }
+    
+    static String encode(UserCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return encode(cursor.getCreatedAt(), cursor.getId());
+    }
+    
+    static String encode(UserChangeCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return encode(cursor.getChangedAt(), cursor.getId());
+    }
+    
+    static UserCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw = decodeRaw(token);
+        int separator = raw.indexOf(SEPARATOR);
+        return new UserCursor(parseTimestamp(raw, separator, token), parseId(raw, separator, token));
+    }
+    
+    static UserChangeCursor decodeChange(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw = decodeRaw(token);
+        int separator = raw.indexOf(SEPARATOR);
+        return new UserChangeCursor(parseTimestamp(raw, separator, token), parseId(raw, separator, token));
+    }
+    
+    private static String encode(Instant timestamp, UUID id) {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decodeRaw(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.indexOf(SEPARATOR) < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return raw;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+    
+    // Los cursores emitidos antes de pasar a Instant no llevan zona: eran fechas UTC sin sufijo
+    private static Instant parseTimestamp(String raw, int separator, String token) {
+        String timestamp = raw.substring(0, separator);
+        try {
+            if (timestamp.endsWith("Z")) {
+                return Instant.parse(timestamp);
+            }
+            return LocalDateTime.parse(timestamp).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+    
+    private static UUID parseId(String raw, int separator, String token) {
+        try {
+            return UUID.fromString(raw.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usercrud.infrastructure.adapter.in.web.controller;
+
+import com.example.usercrud.domain.User;
+
+import java.util.List;
+import java.util.UUID;
+
+// ETags calculados sin serializar el cuerpo: bastan id + versión de cada usuario
+final class UserEtags {
+    
+    private UserEtags() {
+    }
+    
+    static String of(User user) {
+        return "\"" + user.getId() + "." + user.getVersion() + "\"";
+    }
+    
+    // ETag de una página: huella de 128 bits de los (id, versión) en orden más el cursor siguiente. Es débil: la
+    // misma página se sirve en JSON, CBOR o Smile y comprimida o no (Tomcat no comprime respuestas con ETag fuerte)
+    static String ofPage(List<User> users, String nextCursor) {
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = users.size();
+        for (User user : users) {
+            UUID id = user.getId();
+            h1 = mix(h1 ^ id.getMostSignificantBits()) + user.getVersion();
+            h2 = mix(h2 ^ id.getLeastSignificantBits()) ^ h1;
+        }
+        if (nextCursor != null) {
+            h2 = mix(h2 ^ nextCursor.hashCode());
+        }
+        return "W/\"p-" + Long.toHexString(mix(h1)) + "." + Long.toHexString(mix(h2)) + "\"";
+    }
+    
+    static long lastModified(User user) {
+        return user.getUpdatedAt().toEpochMilli();
+    }
+    
+    static boolean isWildcard(String ifMatch) {
+        return ifMatch.trim().equals("*");
+    }
+    
+    // Versión esperada contenida en un If-Match para este usuario; null si ningún ETag fuerte le corresponde
+    static Long expectedVersion(String ifMatch, UUID id) {
+        String prefix = "\"" + id + ".";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Finalizador de MurmurHash3 (fmix64)
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85318L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchCreateUsersDto {
+    
+    @NotEmpty(message = "Users are required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 users")
+    @Valid
+    private List<CreateUserDto> users;
+
+    public BatchCreateUsersDto() {
+    }
+
+    public BatchCreateUsersDto(List<CreateUserDto> users) {
+        this.users = users;
+    }
+
+    // Getters y Setters
+    public List<CreateUserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<CreateUserDto> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BatchDeactivateUsersDto {
+    
+    @NotEmpty(message = "Ids are required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 ids")
+    private List<@NotNull(message = "Id is required") UUID> ids;
+
+    public BatchDeactivateUsersDto() {
+    }
+
+    public BatchDeactivateUsersDto(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    // Getters y Setters
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
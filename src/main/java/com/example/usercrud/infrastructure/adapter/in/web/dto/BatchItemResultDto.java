@@ -0,0 +1,65 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import com.example.usercrud.domain.User;
+
+import java.util.UUID;
+
+public class BatchItemResultDto {
+    private int index;
+    private String status;
+    private UUID id;
+    private User user;
+    private String message;
+
+    public BatchItemResultDto() {
+    }
+
+    public BatchItemResultDto(int index, String status, UUID id, User user, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.user = user;
+        this.message = message;
+    }
+
+    // Getters y Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public class BatchUpdateUserDto extends UpdateUserDto {
+    
+    @NotNull(message = "Id is required")
+    private UUID id;
+
+    public BatchUpdateUserDto() {
+    }
+
+    public BatchUpdateUserDto(UUID id, String username, String email, String firstName, String lastName) {
+        super(username, email, firstName, lastName);
+        this.id = id;
+    }
+
+    // Getters y Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+}
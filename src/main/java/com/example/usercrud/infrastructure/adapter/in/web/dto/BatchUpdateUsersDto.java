@@ -0,0 +1,31 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchUpdateUsersDto {
+    
+    @NotEmpty(message = "Users are required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 users")
+    @Valid
+    private List<BatchUpdateUserDto> users;
+
+    public BatchUpdateUsersDto() {
+    }
+
+    public BatchUpdateUsersDto(List<BatchUpdateUserDto> users) {
+        this.users = users;
+    }
+
+    // Getters y Setters
+    public List<BatchUpdateUserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<BatchUpdateUserDto> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import com.example.usercrud.domain.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class UserChangeDto {
+    private String type;
+    private UUID id;
+    private long version;
+    private Instant changedAt;
+    private User user;
+
+    public UserChangeDto() {
+    }
+
+    public UserChangeDto(String type, UUID id, long version, Instant changedAt, User user) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.changedAt = changedAt;
+        this.user = user;
+    }
+
+    // Getters y Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    // null en los usuarios borrados
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import java.util.List;
+
+public class UserChangePageDto {
+    private List<UserChangeDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public UserChangePageDto() {
+    }
+
+    public UserChangePageDto(List<UserChangeDto> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters y Setters
+    public List<UserChangeDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserChangeDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.usercrud.infrastructure.adapter.in.web.dto;
+
+import com.example.usercrud.domain.User;
+
+import java.util.List;
+
+public class UserPageDto {
+    private List<User> items;
+    private String nextCursor;
+
+    public UserPageDto() {
+    }
+
+    public UserPageDto(List<User> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<User> getItems() {
+        return items;
+    }
+
+    public void setItems(List<User> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
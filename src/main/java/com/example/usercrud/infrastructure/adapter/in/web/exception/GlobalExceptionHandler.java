@@ -1,11 +1,26 @@
 package com.example.usercrud.infrastructure.adapter.in.web.exception;
 
+import com.example.usercrud.domain.exception.DuplicateUserException;
+import com.example.usercrud.domain.exception.UserConcurrentModificationException;
+import com.example.usercrud.domain.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -14,8 +29,10 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException ex) {
         ErrorResponse error = new ErrorResponse(
             HttpStatus.NOT_FOUND.value(),
             ex.getMessage(),
@@ -24,6 +41,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler(DuplicateUserException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateUserException(DuplicateUserException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         ErrorResponse error = new ErrorResponse(
@@ -34,11 +61,82 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    // UUID mal formado en la ruta, parámetros de tipo incorrecto o cuerpo que no es JSON válido
+    @ExceptionHandler({TypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(Exception ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
+    @ExceptionHandler(UserConcurrentModificationException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentModificationException(
+            UserConcurrentModificationException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    @ExceptionHandler(TransientDataAccessException.class)
+    public ResponseEntity<ErrorResponse> handleTransientDataAccessException(TransientDataAccessException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
+    // Sin conexión a tiempo (pool o limitador agotado, BD caída): reintentable, igual que los errores transitorios
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(RuntimeException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Database connection unavailable",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
+    // La escritura superó UserService.WRITE_TIMEOUT_SECONDS (p. ej. esperando un bloqueo) y se deshizo. Si la
+    // cancelación llega desde PostgreSQL es una QueryTimeoutException y la atiende el manejador de transitorios
+    @ExceptionHandler(TransactionTimedOutException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionTimedOut(TransactionTimedOutException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Database transaction timed out",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    // Equivalente en WebFlux (perfil reactive) de MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    private ResponseEntity<ValidationErrorResponse> validationFailed(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -56,9 +154,18 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        // Excepciones de Spring con su propio código (ruta inexistente, método no permitido, parámetro ausente...)
+        if (ex instanceof org.springframework.web.ErrorResponse response) {
+            HttpStatusCode status = response.getStatusCode();
+            ErrorResponse error = new ErrorResponse(status.value(), ex.getMessage(), LocalDateTime.now());
+            return ResponseEntity.status(status).headers(response.getHeaders()).body(error);
+        }
+        // Fallo no previsto (NPE, DataAccessException...): la traza queda en el log y el cliente no ve detalles
+        // internos como SQL o nombres de tablas
+        log.error("Unhandled exception", ex);
         ErrorResponse error = new ErrorResponse(
             HttpStatus.INTERNAL_SERVER_ERROR.value(),
-            "An unexpected error occurred: " + ex.getMessage(),
+            "An unexpected error occurred",
             LocalDateTime.now()
         );
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -69,37 +176,37 @@ public class GlobalExceptionHandler {
         private int status;
         private String message;
         private LocalDateTime timestamp;
-
+        
         public ErrorResponse() {
         }
-
+        
         public ErrorResponse(int status, String message, LocalDateTime timestamp) {
             this.status = status;
             this.message = message;
             this.timestamp = timestamp;
         }
-
+        
         // Getters y Setters
         public int getStatus() {
             return status;
         }
-
+        
         public void setStatus(int status) {
             this.status = status;
         }
-
+        
         public String getMessage() {
             return message;
         }
-
+        
         public void setMessage(String message) {
             this.message = message;
         }
-
+        
         public LocalDateTime getTimestamp() {
             return timestamp;
         }
-
+        
         public void setTimestamp(LocalDateTime timestamp) {
             this.timestamp = timestamp;
         }
@@ -110,46 +217,46 @@ public class GlobalExceptionHandler {
         private String message;
         private Map<String, String> errors;
         private LocalDateTime timestamp;
-
+        
         public ValidationErrorResponse() {
         }
-
+        
         public ValidationErrorResponse(int status, String message, Map<String, String> errors, LocalDateTime timestamp) {
             this.status = status;
             this.message = message;
             this.errors = errors;
             this.timestamp = timestamp;
         }
-
+        
         // Getters y Setters
         public int getStatus() {
             return status;
         }
-
+        
         public void setStatus(int status) {
             this.status = status;
         }
-
+        
         public String getMessage() {
             return message;
         }
-
+        
         public void setMessage(String message) {
             this.message = message;
         }
-
+        
         public Map<String, String> getErrors() {
             return errors;
         }
-
+        
         public void setErrors(Map<String, String> errors) {
             this.errors = errors;
         }
-
+        
         public LocalDateTime getTimestamp() {
             return timestamp;
         }
-
+        
         public void setTimestamp(LocalDateTime timestamp) {
             this.timestamp = timestamp;
         }
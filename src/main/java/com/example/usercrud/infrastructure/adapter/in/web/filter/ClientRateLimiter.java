@@ -0,0 +1,52 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Token bucket por cliente con memoria fija: cada cliente cae por hash en uno de 'stripes' cubos y cada cubo es un
+// único long (GCRA: instante teórico en que el cubo vuelve a estar lleno) que se actualiza con un CAS, sin locks
+// ni mapas que crezcan con el número de clientes. Dos clientes que comparten cubo comparten límite; con suficientes
+// cubos es raro y solo hace el límite más estricto, nunca más laxo
+public class ClientRateLimiter {
+    
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final int capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    // Los instantes se guardan relativos al arranque: System.nanoTime() puede ser negativo y 0 significa cubo lleno
+    private final long origin = System.nanoTime();
+    
+    public ClientRateLimiter(int stripes, double tokensPerSecond, int capacity) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        this.buckets = new AtomicLongArray(stripes);
+        this.mask = stripes - 1;
+        this.capacity = capacity;
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = capacity * nanosPerToken;
+    }
+    
+    // 0 si hay tokens para 'cost'; si no, nanosegundos hasta que los habrá. Un coste mayor que la capacidad se
+    // limita a la capacidad para que la petición siga siendo posible con el cubo lleno
+    public long tryAcquire(String client, int cost) {
+        int index = spread(client.hashCode()) & mask;
+        long increment = Math.min(cost, capacity) * nanosPerToken;
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long full = buckets.get(index);
+            long next = Math.max(full, now) + increment;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (buckets.compareAndSet(index, full, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
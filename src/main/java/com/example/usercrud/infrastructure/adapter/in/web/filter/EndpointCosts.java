@@ -0,0 +1,62 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+// Tokens que consume cada llamada a /api/users según lo que cuesta servirla: leer un usuario por clave es 1,
+// listar, buscar o exportar recorren muchas filas y ocupan una conexión durante más tiempo
+public class EndpointCosts {
+    
+    private static final String BASE_PATH = "/api/users";
+    // Tipos que GET /api/users sirve como exportación completa en streaming
+    private static final String[] EXPORT_TYPES = {"application/x-ndjson", "application/cbor-seq", "text/csv"};
+    
+    private final int list;
+    private final int export;
+    private final int search;
+    private final int changes;
+    private final int batch;
+    private final int single;
+    
+    public EndpointCosts(int list, int export, int search, int changes, int batch, int single) {
+        this.list = list;
+        this.export = export;
+        this.search = search;
+        this.changes = changes;
+        this.batch = batch;
+        this.single = single;
+    }
+    
+    public int of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String subPath = path.length() > BASE_PATH.length() ? path.substring(BASE_PATH.length()) : "";
+        if (subPath.isEmpty() || subPath.equals("/")) {
+            if (!"GET".equals(request.getMethod())) {
+                return single;
+            }
+            return isExport(request.getHeader(HttpHeaders.ACCEPT)) ? export : list;
+        }
+        if (subPath.startsWith("/batch")) {
+            return batch;
+        }
+        if (subPath.equals("/search")) {
+            return search;
+        }
+        if (subPath.equals("/changes")) {
+            return changes;
+        }
+        return single;
+    }
+    
+    private static boolean isExport(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (String type : EXPORT_TYPES) {
+            if (accept.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Límite de peticiones en curso que se ajusta con la latencia observada (algoritmo Gradient, como en
+// concurrency-limits de Netflix): en cada ventana compara la latencia media reciente con una media larga. Si la
+// reciente sube (cola en el pool de Hikari o en la BD) el límite baja en proporción; si se mantiene, crece en
+// sqrt(límite). Las muestras se acumulan en LongAdder y solo el hilo que cierra la ventana recalcula el límite
+public class GradientConcurrencyLimiter {
+    
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // Ventanas que pesa la media larga
+    private static final int LONG_WINDOWS = 60;
+    // Subida de latencia tolerada antes de empezar a reducir el límite
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicLong windowEnd;
+    private volatile int limit;
+    // Solo los toca el hilo que gana el CAS de windowEnd, que también publica los cambios
+    private double estimatedLimit;
+    private double longRtt;
+    
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+    
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+    
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            update();
+        }
+    }
+    
+    // Para peticiones cuya duración no refleja la carga (exportaciones en streaming)
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    private void update() {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (count < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        }
+        // Pasada la sobrecarga la media larga queda inflada: se acerca más deprisa a la latencia actual
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Sin usar ni la mitad del límite no hay evidencia de que aguante más: solo se permite bajar
+        if (peak < estimatedLimit / 2) {
+            target = Math.min(target, estimatedLimit);
+        }
+        double next = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
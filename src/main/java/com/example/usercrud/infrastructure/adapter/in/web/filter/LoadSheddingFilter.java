@@ -0,0 +1,139 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import com.example.usercrud.infrastructure.adapter.in.web.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Protege el pool de conexiones frente a clientes que repiten llamadas caras. Dos barreras, antes de llegar al
+// controlador:
+// - 503: hay más peticiones en curso que el límite adaptativo calculado a partir de la latencia
+// - 429: el cliente ha agotado su token bucket (cada endpoint consume según su coste). Solo con client-header: sin
+//   ella, todos los clientes detrás del mismo balanceador o NAT compartirían un cubo
+// Los tokens se cobran después de pasar el límite de concurrencia: un 503 no gasta el presupuesto del cliente.
+// Ambas respuestas llevan Retry-After
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+    
+    private final ClientRateLimiter rateLimiter;
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+    private final EndpointCosts costs;
+    // Cabecera que identifica al cliente (p. ej. una API key); null desactiva el límite por cliente. Las peticiones
+    // que no la traen se agrupan por IP remota
+    private final String clientHeader;
+    private final ObjectMapper objectMapper;
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+    
+    public LoadSheddingFilter(ClientRateLimiter rateLimiter, GradientConcurrencyLimiter concurrencyLimiter,
+                              EndpointCosts costs, String clientHeader, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.costs = costs;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.objectMapper = objectMapper;
+        this.admitted = Counter.builder("http.load.admitted")
+                .description("Requests that passed the rate and concurrency limits")
+                .register(meterRegistry);
+        this.rateLimited = Counter.builder("http.load.shed")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.overloaded = Counter.builder("http.load.shed")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+        Gauge.builder("http.load.concurrency.limit", concurrencyLimiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("http.load.in.flight", concurrencyLimiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Requests currently being served")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloaded.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, OVERLOAD_RETRY_AFTER_SECONDS, "Server overloaded");
+            return;
+        }
+        long waitNanos = clientHeader == null ? 0 : rateLimiter.tryAcquire(clientKey(request), costs.of(request));
+        if (waitNanos > 0) {
+            concurrencyLimiter.releaseWithoutSample();
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, (waitNanos + 999_999_999) / 1_000_000_000,
+                    "Rate limit exceeded");
+            return;
+        }
+        admitted.increment();
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Exportación en streaming: el permiso se libera al terminar la respuesta y su duración no se
+                // usa como muestra de latencia
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new GlobalExceptionHandler.ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+    
+    // onComplete llega siempre, también después de un timeout o un error: solo ahí se libera
+    private final class ReleaseOnCompletion implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrencyLimiter.releaseWithoutSample();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.usercrud.infrastructure.adapter.in.web.json;
+
+import com.example.usercrud.domain.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.Instant;
+
+// Serializa User directamente, sin copiarlo antes a un DTO ni pasar por la introspección de getters. Los nombres
+// de campo se codifican una sola vez y las fechas salen en ISO-8601 UTC, igual que con JavaTimeModule
+@JsonComponent
+public class UserJsonSerializer extends StdSerializer<User> {
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString FULL_NAME = new SerializedString("fullName");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString ACTIVE = new SerializedString("active");
+    private static final SerializedString VERSION = new SerializedString("version");
+    
+    public UserJsonSerializer() {
+        super(User.class);
+    }
+    
+    @Override
+    public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(user);
+        generator.writeFieldName(ID);
+        generator.writeString(user.getId().toString());
+        generator.writeFieldName(USERNAME);
+        generator.writeString(user.getUsername());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(user.getEmail());
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(user.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(user.getLastName());
+        generator.writeFieldName(FULL_NAME);
+        generator.writeString(user.getFullName());
+        generator.writeFieldName(CREATED_AT);
+        writeInstant(generator, user.getCreatedAt());
+        generator.writeFieldName(UPDATED_AT);
+        writeInstant(generator, user.getUpdatedAt());
+        generator.writeFieldName(ACTIVE);
+        generator.writeBoolean(user.isActive());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(user.getVersion());
+        generator.writeEndObject();
+    }
+    
+    private static void writeInstant(JsonGenerator generator, Instant instant) throws IOException {
+        if (instant == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(instant.toString());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.domain.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+// Caché en proceso acotada por tamaño (W-TinyLFU) y TTL; las métricas se publican en /actuator/metrics/cache.*
+// Con app.cache.shared.enabled es el nivel local (near-cache) de TwoLevelUserCacheAdapter
+@Component
+@ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CaffeineUserCacheAdapter implements UserCachePort {
+    
+    private final Cache<UUID, User> usersById;
+    // username -> id: el usuario siempre se resuelve a través de usersById, que es la única copia
+    private final Cache<String, UUID> idsByUsername;
+    private final Cache<String, Boolean> missingUsernames;
+    // Usernames que acaban de pasar a existir; caducan en tombstone-ttl. Una búsqueda que falló antes del commit
+    // (o que se unió a una consulta en vuelo, o leyó una réplica con retraso) llega tarde y no debe cachear el fallo
+    private final Cache<String, Boolean> createdUsernames;
+    // id -> versión mínima aceptada tras una invalidación (lápida); caduca en tombstone-ttl
+    private final Cache<UUID, Long> minVersions;
+    
+    public CaffeineUserCacheAdapter(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.maximum-size:100000}") long maximumSize,
+            @Value("${app.cache.ttl:10m}") Duration ttl,
+            @Value("${app.cache.negative-maximum-size:100000}") long negativeMaximumSize,
+            @Value("${app.cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${app.cache.tombstone-ttl:10s}") Duration tombstoneTtl) {
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.missingUsernames = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.minVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(tombstoneTtl)
+                .build();
+        this.createdUsernames = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(tombstoneTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.byUsername");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingUsernames, "users.missingUsername");
+    }
+    
+    @Override
+    public Optional<User> getById(UUID id) {
+        return Optional.ofNullable(usersById.getIfPresent(id));
+    }
+    
+    @Override
+    public Optional<User> getByUsername(String username) {
+        UUID id = idsByUsername.getIfPresent(username);
+        if (id == null) {
+            return Optional.empty();
+        }
+        User user = usersById.getIfPresent(id);
+        // La entrada por username puede haber quedado obsoleta tras un cambio de username
+        if (user == null || !user.getUsername().equals(username)) {
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+    
+    // Nunca sustituye una versión por otra anterior ni acepta una que una lápida invalida. La lápida se consulta
+    // dentro del compute, que se serializa con el de evict: o se ve aquí o evict elimina después lo guardado
+    @Override
+    public void put(User user) {
+        offer(user);
+    }
+    
+    // Como put; false si la caché no admite esa versión (hay una más nueva o una lápida posterior)
+    public boolean offer(User user) {
+        User stored = usersById.asMap().compute(user.getId(), (id, cached) -> {
+            if (cached != null && cached.getVersion() >= user.getVersion()) {
+                return cached;
+            }
+            Long minVersion = minVersions.getIfPresent(id);
+            if (minVersion != null && user.getVersion() < minVersion) {
+                return cached;
+            }
+            return user;
+        });
+        if (stored == user) {
+            idsByUsername.put(user.getUsername(), user.getId());
+            return true;
+        }
+        return stored != null && stored.getVersion() == user.getVersion();
+    }
+    
+    @Override
+    public void evict(UUID id, long version) {
+        minVersions.asMap().merge(id, version, Math::max);
+        // computeIfPresent espera a un put en curso sobre la misma clave y conserva una versión más nueva
+        usersById.asMap().computeIfPresent(id, (key, cached) -> {
+            if (cached.getVersion() >= version) {
+                return cached;
+            }
+            idsByUsername.invalidate(cached.getUsername());
+            return null;
+        });
+    }
+    
+    // Tras perder mensajes de invalidación (reconexión al canal de la caché compartida) nada de lo local es fiable
+    public void invalidateAll() {
+        usersById.invalidateAll();
+        idsByUsername.invalidateAll();
+        missingUsernames.invalidateAll();
+    }
+    
+    @Override
+    public boolean isKnownMissingUsername(String username) {
+        return missingUsernames.getIfPresent(username) != null;
+    }
+    
+    // Como offer con minVersions: la lápida se consulta dentro del compute, que se serializa con la eliminación de
+    // evictMissingUsername sobre la misma clave
+    @Override
+    public void putMissingUsername(String username) {
+        missingUsernames.asMap().compute(username,
+                (key, missing) -> createdUsernames.getIfPresent(key) != null ? missing : Boolean.TRUE);
+    }
+    
+    @Override
+    public void evictMissingUsername(String username) {
+        createdUsernames.put(username, Boolean.TRUE);
+        missingUsernames.invalidate(username);
+    }
+}
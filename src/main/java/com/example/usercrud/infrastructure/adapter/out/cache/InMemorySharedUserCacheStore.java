@@ -0,0 +1,113 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.domain.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Sustituto en proceso del nivel compartido (app.cache.shared.store=in-memory) con las mismas reglas de versiones y
+// lápidas que RedisSharedUserCacheStore. Varios TwoLevelUserCacheAdapter sobre la misma instancia se comportan como
+// réplicas que comparten Redis: sirve para el perfil memory y para los benchmarks, sin servidor
+public class InMemorySharedUserCacheStore implements SharedUserCacheStore {
+    
+    private final Cache<UUID, Slot> users;
+    private final Cache<String, UUID> idsByUsername;
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+    private final long ttlNanos;
+    private final long tombstoneTtlNanos;
+    
+    public InMemorySharedUserCacheStore(long maximumSize, Duration ttl, Duration tombstoneTtl) {
+        this.ttlNanos = ttl.toNanos();
+        this.tombstoneTtlNanos = tombstoneTtl.toNanos();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new SlotExpiry())
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    @Override
+    public Optional<User> get(UUID id) {
+        Slot slot = users.getIfPresent(id);
+        return slot == null ? Optional.empty() : Optional.ofNullable(slot.user);
+    }
+    
+    @Override
+    public Optional<UUID> getIdByUsername(String username) {
+        return Optional.ofNullable(idsByUsername.getIfPresent(username));
+    }
+    
+    @Override
+    public boolean put(User user) {
+        Slot next = new Slot(user, user.getVersion(), System.nanoTime() + ttlNanos);
+        Slot stored = users.asMap().compute(user.getId(),
+                (id, slot) -> slot != null && slot.floor >= user.getVersion() ? slot : next);
+        if (stored != next) {
+            return false;
+        }
+        idsByUsername.put(user.getUsername(), user.getId());
+        return true;
+    }
+    
+    // Solo se conserva lo que ya es 'version' o posterior: un usuario en version - 1 es justo el que se invalida
+    @Override
+    public void evict(UUID id, long version) {
+        Slot tombstone = new Slot(null, version - 1, System.nanoTime() + tombstoneTtlNanos);
+        users.asMap().compute(id, (key, slot) -> slot != null && slot.floor >= version ? slot : tombstone);
+    }
+    
+    @Override
+    public void publish(String message) {
+        for (Consumer<String> subscriber : subscribers) {
+            subscriber.accept(message);
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onResubscribe) {
+        subscribers.add(onMessage);
+    }
+    
+    // Usuario (o null si es una lápida) y versión más alta que ya no se acepta
+    private static final class Slot {
+        final User user;
+        final long floor;
+        final long expiresAt;
+        
+        Slot(User user, long floor, long expiresAt) {
+            this.user = user;
+            this.floor = floor;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    // Cada slot caduca en el instante fijado al escribirlo, como PEXPIRE en Redis: un put rechazado devuelve el
+    // mismo slot y no prolonga su vida
+    private static final class SlotExpiry implements Expiry<UUID, Slot> {
+        
+        @Override
+        public long expireAfterCreate(UUID id, Slot slot, long currentTime) {
+            return Math.max(0, slot.expiresAt - currentTime);
+        }
+        
+        @Override
+        public long expireAfterUpdate(UUID id, Slot slot, long currentTime, long currentDuration) {
+            return Math.max(0, slot.expiresAt - currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(UUID id, Slot slot, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
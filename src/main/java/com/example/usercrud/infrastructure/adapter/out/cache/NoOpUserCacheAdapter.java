@@ -0,0 +1,46 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.domain.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Se usa cuando app.cache.enabled=false: todas las lecturas van a la base de datos
+@Component
+@ConditionalOnProperty(name = "app.cache.enabled", havingValue = "false")
+public class NoOpUserCacheAdapter implements UserCachePort {
+    
+    @Override
+    public Optional<User> getById(UUID id) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public Optional<User> getByUsername(String username) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public void put(User user) {
+    }
+    
+    @Override
+    public void evict(UUID id, long version) {
+    }
+    
+    @Override
+    public boolean isKnownMissingUsername(String username) {
+        return false;
+    }
+    
+    @Override
+    public void putMissingUsername(String username) {
+    }
+    
+    @Override
+    public void evictMissingUsername(String username) {
+    }
+}
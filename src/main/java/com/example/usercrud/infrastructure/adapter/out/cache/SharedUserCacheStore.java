@@ -0,0 +1,28 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.domain.User;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Nivel de caché compartido entre réplicas (detrás de TwoLevelUserCacheAdapter) y canal por el que se avisan las
+// invalidaciones. Las entradas llevan la versión del usuario: el almacén nunca sustituye una por otra anterior
+public interface SharedUserCacheStore {
+    
+    Optional<User> get(UUID id);
+    
+    Optional<UUID> getIdByUsername(String username);
+    
+    // false si ya tiene esa versión o una posterior, o una lápida que la invalida
+    boolean put(User user);
+    
+    // Elimina el usuario y deja una lápida: durante un tiempo no acepta versiones anteriores a 'version'
+    void evict(UUID id, long version);
+    
+    void publish(String message);
+    
+    // onMessage recibe los mensajes de todas las réplicas, también los propios. onResubscribe se llama tras
+    // recuperar la suscripción, cuando se pueden haber perdido mensajes
+    void subscribe(Consumer<String> onMessage, Runnable onResubscribe);
+}
@@ -0,0 +1,205 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Caché de dos niveles para varias réplicas (app.cache.shared.enabled): la near-cache en proceso responde sin red y
+// el nivel compartido evita que cada réplica cargue el mismo usuario de la BD. Cada invalidación se aplica en los dos
+// niveles y se publica en el canal para que el resto de réplicas la aplique en su near-cache.
+// Ambos niveles comparan versiones, así que una lectura lenta no puede dejar una versión anterior a la escrita. Un
+// fallo del nivel compartido cuenta como fallo de caché y se mide en user.cache.shared.errors; mientras dure, el
+// desfase entre réplicas queda acotado por los TTL
+public class TwoLevelUserCacheAdapter implements UserCachePort {
+    
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelUserCacheAdapter.class);
+    private static final String USER_INVALIDATION = "u";
+    private static final String MISSING_USERNAME_INVALIDATION = "m";
+    
+    private final CaffeineUserCacheAdapter near;
+    private final SharedUserCacheStore shared;
+    // Identifica los mensajes propios, que ya se han aplicado antes de publicarlos
+    private final String nodeId = UUID.randomUUID().toString();
+    private final MeterRegistry meterRegistry;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedWrites;
+    private final Counter sharedStaleWrites;
+    private final Counter invalidationsSent;
+    private final Counter invalidationsReceived;
+    private final Counter nearResets;
+    
+    public TwoLevelUserCacheAdapter(CaffeineUserCacheAdapter near, SharedUserCacheStore shared,
+                                    MeterRegistry meterRegistry) {
+        this.near = near;
+        this.shared = shared;
+        this.meterRegistry = meterRegistry;
+        this.localHits = gets(meterRegistry, "local", "hit");
+        this.localMisses = gets(meterRegistry, "local", "miss");
+        this.sharedHits = gets(meterRegistry, "shared", "hit");
+        this.sharedMisses = gets(meterRegistry, "shared", "miss");
+        this.sharedWrites = Counter.builder("user.cache.shared.writes")
+                .description("Users written to the shared cache tier")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.sharedStaleWrites = Counter.builder("user.cache.shared.writes")
+                .description("Users written to the shared cache tier")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        this.invalidationsSent = Counter.builder("user.cache.invalidations")
+                .description("Cache invalidations broadcast to or received from other replicas")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.invalidationsReceived = Counter.builder("user.cache.invalidations")
+                .description("Cache invalidations broadcast to or received from other replicas")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.nearResets = Counter.builder("user.cache.near.resets")
+                .description("Near-cache flushes after resubscribing to the invalidation channel")
+                .register(meterRegistry);
+        shared.subscribe(this::onInvalidation, this::onResubscribe);
+    }
+    
+    @Override
+    public Optional<User> getById(UUID id) {
+        Optional<User> local = near.getById(id);
+        if (local.isPresent()) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+        Optional<User> user = sharedCall("get", () -> shared.get(id), Optional.empty());
+        return fromShared(user);
+    }
+    
+    @Override
+    public Optional<User> getByUsername(String username) {
+        Optional<User> local = near.getByUsername(username);
+        if (local.isPresent()) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+        Optional<User> user = sharedCall("get", () -> shared.getIdByUsername(username)
+                .flatMap(shared::get)
+                // La entrada por username puede haber quedado obsoleta tras un cambio de username
+                .filter(found -> found.getUsername().equals(username)), Optional.empty());
+        return fromShared(user);
+    }
+    
+    @Override
+    public void put(User user) {
+        near.put(user);
+        Boolean written = sharedCall("put", () -> shared.put(user), null);
+        if (written != null) {
+            (written ? sharedWrites : sharedStaleWrites).increment();
+        }
+    }
+    
+    @Override
+    public void evict(UUID id, long version) {
+        near.evict(id, version);
+        sharedCall("evict", () -> {
+            shared.evict(id, version);
+            return null;
+        }, null);
+        publish(USER_INVALIDATION + " " + id + " " + version);
+    }
+    
+    // La caché negativa es solo local; basta con avisar al resto de réplicas de que el username ya existe
+    @Override
+    public boolean isKnownMissingUsername(String username) {
+        return near.isKnownMissingUsername(username);
+    }
+    
+    @Override
+    public void putMissingUsername(String username) {
+        near.putMissingUsername(username);
+    }
+    
+    @Override
+    public void evictMissingUsername(String username) {
+        near.evictMissingUsername(username);
+        publish(MISSING_USERNAME_INVALIDATION + " " + username);
+    }
+    
+    private Optional<User> fromShared(Optional<User> user) {
+        if (user.isEmpty()) {
+            sharedMisses.increment();
+            return user;
+        }
+        // Si la near-cache tiene una lápida posterior (p. ej. la invalidación no llegó al nivel compartido), lo que
+        // devuelve el nivel compartido está obsoleto
+        if (!near.offer(user.get())) {
+            sharedMisses.increment();
+            return Optional.empty();
+        }
+        sharedHits.increment();
+        return user;
+    }
+    
+    private void publish(String invalidation) {
+        sharedCall("publish", () -> {
+            shared.publish(nodeId + " " + invalidation);
+            return null;
+        }, null);
+        invalidationsSent.increment();
+    }
+    
+    // "<nodo> u <id> <versión>" o "<nodo> m <username>"; el username va al final y puede contener espacios
+    private void onInvalidation(String message) {
+        String[] parts = message.split(" ", 3);
+        if (parts.length < 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            if (parts[1].equals(USER_INVALIDATION)) {
+                String[] user = parts[2].split(" ", 2);
+                near.evict(UUID.fromString(user[0]), Long.parseLong(user[1]));
+            } else if (parts[1].equals(MISSING_USERNAME_INVALIDATION)) {
+                near.evictMissingUsername(parts[2]);
+            } else {
+                return;
+            }
+            invalidationsReceived.increment();
+        } catch (RuntimeException ex) {
+            log.warn("Ignoring malformed cache invalidation: {}", message);
+        }
+    }
+    
+    private void onResubscribe() {
+        near.invalidateAll();
+        nearResets.increment();
+    }
+    
+    private <T> T sharedCall(String operation, Supplier<T> call, T fallback) {
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            Counter.builder("user.cache.shared.errors")
+                    .description("Shared cache tier calls that failed and were treated as a miss")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Shared cache {} failed", operation, ex);
+            return fallback;
+        }
+    }
+    
+    private static Counter gets(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("user.cache.gets")
+                .description("User cache lookups by tier")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
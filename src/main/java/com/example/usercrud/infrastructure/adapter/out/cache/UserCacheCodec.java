@@ -0,0 +1,74 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.domain.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.UUID;
+
+// Formato binario de User en el nivel compartido: unos 100 bytes, sin reflexión ni dependencia de la configuración
+// de Jackson. El primer byte es la versión del formato; una desconocida (réplica con otra versión durante un
+// despliegue) se trata como fallo de caché
+final class UserCacheCodec {
+    
+    private static final byte FORMAT = 1;
+    
+    private UserCacheCodec() {
+    }
+    
+    static byte[] encode(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(user.getId().getMostSignificantBits());
+            out.writeLong(user.getId().getLeastSignificantBits());
+            out.writeUTF(user.getUsername());
+            out.writeUTF(user.getEmail());
+            out.writeUTF(user.getFirstName());
+            out.writeUTF(user.getLastName());
+            writeInstant(out, user.getCreatedAt());
+            writeInstant(out, user.getUpdatedAt());
+            out.writeBoolean(user.isActive());
+            out.writeLong(user.getVersion());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+    
+    // null si el formato no es este
+    static User decode(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != FORMAT) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return new User(
+                new UUID(in.readLong(), in.readLong()),
+                in.readUTF(),
+                in.readUTF(),
+                in.readUTF(),
+                in.readUTF(),
+                readInstant(in),
+                readInstant(in),
+                in.readBoolean(),
+                in.readLong()
+            );
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+    
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usercrud.infrastructure.adapter.out.events;
+
+import com.example.usercrud.application.port.out.UserEventPublisherPort;
+import com.example.usercrud.domain.UserEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Destino en fichero (app.events.sink=file): NDJSON en modo append. Cada lote se fuerza a disco antes de que el
+// relay borre los eventos del outbox, de modo que una caída no pierde eventos (como mucho los duplica)
+@Component
+@ConditionalOnProperty(name = "app.events.sink", havingValue = "file")
+public class FileUserEventPublisher implements UserEventPublisherPort {
+    
+    private final ObjectWriter eventWriter;
+    private final FileChannel channel;
+    private final OutputStream output;
+    
+    public FileUserEventPublisher(ObjectMapper objectMapper,
+                                  @Value("${app.events.file.path:user-events.ndjson}") Path path) throws IOException {
+        this.eventWriter = objectMapper.writerFor(UserEvent.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.output = Channels.newOutputStream(channel);
+    }
+    
+    @Override
+    public synchronized void publish(List<UserEvent> events) {
+        // Un único write por lote
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(events.size() * 256);
+        try {
+            for (UserEvent event : events) {
+                eventWriter.writeValue(batch, event);
+                batch.write('\n');
+            }
+            batch.writeTo(output);
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
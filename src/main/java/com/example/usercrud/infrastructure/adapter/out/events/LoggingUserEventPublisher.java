@@ -0,0 +1,40 @@
+package com.example.usercrud.infrastructure.adapter.out.events;
+
+import com.example.usercrud.application.port.out.UserEventPublisherPort;
+import com.example.usercrud.domain.UserEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Destino por defecto (app.events.sink=log): una línea JSON por evento en el logger "user-events"
+@Component
+@ConditionalOnProperty(name = "app.events.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingUserEventPublisher implements UserEventPublisherPort {
+    
+    private static final Logger log = LoggerFactory.getLogger("user-events");
+    
+    private final ObjectMapper objectMapper;
+    
+    public LoggingUserEventPublisher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public void publish(List<UserEvent> events) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        try {
+            for (UserEvent event : events) {
+                log.info(objectMapper.writeValueAsString(event));
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize user event", ex);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.usercrud.infrastructure.adapter.out.events;
+
+import com.example.usercrud.application.port.out.UserEventOutboxPort;
+import com.example.usercrud.application.port.out.UserEventPublisherPort;
+import com.example.usercrud.domain.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Vacía el outbox hacia el UserEventPublisherPort en dos etapas desacopladas por un buffer acotado:
+// - lector: reserva lotes del outbox solo mientras el buffer tiene hueco para un lote completo (backpressure: si el
+//   destino se atasca, los eventos esperan en la tabla y no en memoria)
+// - publicador: agrupa lo que haya en el buffer (hasta batch-size), lo publica con reintentos y backoff exponencial
+//   y solo entonces lo borra del outbox. Entrega al menos una vez
+// Cada réplica ejecuta su relay: la reserva (lease) reparte los eventos entre ellas, y si una cae los suyos vuelven a
+// estar disponibles al caducar. Cada réplica publica en orden de secuencia; entre réplicas el orden por usuario lo da
+// la versión del evento
+@Component
+@ConditionalOnProperty(name = "app.events.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventOutboxRelay implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserEventOutboxRelay.class);
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+    
+    private final UserEventOutboxPort outbox;
+    private final UserEventPublisherPort publisher;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long maxBackoffMillis;
+    private final Duration lease;
+    private final BlockingQueue<UserEvent> buffer;
+    // Eventos leídos del outbox y aún no borrados (en el buffer o publicándose)
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter fetched;
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Timer publishTimer;
+    
+    private volatile boolean running;
+    private Thread reader;
+    private Thread writer;
+    
+    public UserEventOutboxRelay(
+            UserEventOutboxPort outbox,
+            UserEventPublisherPort publisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.relay.batch-size:500}") int batchSize,
+            @Value("${app.events.relay.buffer-capacity:5000}") int bufferCapacity,
+            @Value("${app.events.relay.poll-interval:200ms}") Duration pollInterval,
+            @Value("${app.events.relay.max-backoff:30s}") Duration maxBackoff,
+            @Value("${app.events.relay.lease:5m}") Duration lease) {
+        if (bufferCapacity < batchSize) {
+            throw new IllegalArgumentException("app.events.relay.buffer-capacity must be >= batch-size");
+        }
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.lease = lease;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.fetched = Counter.builder("user.events.fetched")
+                .description("Events read from the outbox")
+                .register(meterRegistry);
+        this.published = Counter.builder("user.events.published")
+                .description("Events delivered to the sink and removed from the outbox")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("user.events.publish.failures")
+                .description("Failed sink deliveries (the batch is retried)")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("user.events.publish")
+                .description("Sink latency per batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("user.events.buffer", buffer, BlockingQueue::size)
+                .description("Events waiting in the in-memory buffer")
+                .register(meterRegistry);
+        Gauge.builder("user.events.in.flight", inFlight, AtomicInteger::get)
+                .description("Events read from the outbox and not yet deleted")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public synchronized void start() {
+        running = true;
+        reader = new Thread(this::readLoop, "user-events-reader");
+        writer = new Thread(this::writeLoop, "user-events-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+    }
+    
+    // Los eventos aún no publicados siguen en el outbox: se liberan para que otra réplica (o el próximo arranque)
+    // los publique sin esperar a que caduque la reserva
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            reader.join(STOP_TIMEOUT_MILLIS);
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<UserEvent> unpublished = new ArrayList<>(buffer.size());
+        buffer.drainTo(unpublished);
+        inFlight.addAndGet(-unpublished.size());
+        release(unpublished);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void readLoop() {
+        while (running) {
+            try {
+                if (!readBatch()) {
+                    sleep(pollIntervalMillis);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Cannot read the user event outbox, retrying", ex);
+                sleep(pollIntervalMillis);
+            }
+        }
+    }
+    
+    // true si ha leído un lote completo y conviene seguir leyendo sin esperar
+    private boolean readBatch() {
+        if (buffer.remainingCapacity() < batchSize) {
+            return false;
+        }
+        List<UserEvent> events = outbox.claimPending(batchSize, lease);
+        if (events.isEmpty()) {
+            return false;
+        }
+        inFlight.addAndGet(events.size());
+        // Hay hueco garantizado: este hilo es el único productor
+        buffer.addAll(events);
+        fetched.increment(events.size());
+        return events.size() == batchSize;
+    }
+    
+    private void writeLoop() {
+        List<UserEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            UserEvent first;
+            try {
+                first = buffer.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            buffer.drainTo(batch, batchSize - 1);
+            try {
+                if (publishWithRetry(batch)) {
+                    deletePublished(batch);
+                } else {
+                    release(batch);
+                }
+            } finally {
+                inFlight.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+    
+    private boolean publishWithRetry(List<UserEvent> batch) {
+        long backoff = Math.max(pollIntervalMillis, 1);
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                publisher.publish(batch);
+                publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                published.increment(batch.size());
+                return true;
+            } catch (RuntimeException ex) {
+                publishFailures.increment();
+                log.warn("Cannot publish {} user events, retrying in {} ms", batch.size(), backoff, ex);
+            }
+            if (!running) {
+                return false;
+            }
+            sleep(backoff);
+            backoff = Math.min(backoff * 2, maxBackoffMillis);
+        }
+    }
+    
+    // Si el borrado falla los eventos se vuelven a reservar al caducar la reserva y a publicar: duplicados, nunca
+    // pérdidas
+    private void deletePublished(List<UserEvent> batch) {
+        List<Long> sequences = new ArrayList<>(batch.size());
+        for (UserEvent event : batch) {
+            sequences.add(event.getSequence());
+        }
+        try {
+            outbox.delete(sequences);
+        } catch (RuntimeException ex) {
+            log.warn("Cannot delete {} published user events from the outbox", batch.size(), ex);
+        }
+    }
+    
+    // Si falla, los eventos vuelven a estar disponibles al caducar la reserva
+    private void release(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> sequences = new ArrayList<>(events.size());
+        for (UserEvent event : events) {
+            sequences.add(event.getSequence());
+        }
+        try {
+            outbox.release(sequences);
+        } catch (RuntimeException ex) {
+            log.warn("Cannot release {} unpublished user events", events.size(), ex);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+// Estado del filtro de claves que devuelve /actuator/userkeyfilter
+public final class BloomFilterStats {
+    
+    private final boolean loaded;
+    private final long keys;
+    private final long sizeInBytes;
+    private final double expectedFalsePositiveRate;
+    private final double targetFalsePositiveRate;
+    
+    public BloomFilterStats(boolean loaded, long keys, long sizeInBytes, double expectedFalsePositiveRate,
+                            double targetFalsePositiveRate) {
+        this.loaded = loaded;
+        this.keys = keys;
+        this.sizeInBytes = sizeInBytes;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public long getKeys() {
+        return keys;
+    }
+    
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+    
+    public double getExpectedFalsePositiveRate() {
+        return expectedFalsePositiveRate;
+    }
+    
+    public double getTargetFalsePositiveRate() {
+        return targetFalsePositiveRate;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+import com.example.usercrud.application.port.out.UserKeyFilterPort;
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+// Filtro de Bloom con los usernames y emails de los usuarios vivos, para no consultar la BD por claves que seguro
+// no existen. Se carga al arrancar recorriendo la tabla en streaming y se reconstruye periódicamente (y bajo demanda
+// desde /actuator/userkeyfilter): Bloom no admite borrados y las escrituras de otras instancias no pasan por aquí.
+// Mientras no está cargado responde siempre "puede existir" y todo va a la BD. Pensado para una sola instancia: con
+// varias réplicas cada una desconoce las claves escritas por las demás hasta su siguiente reconstrucción; el índice
+// único las rechaza al escribir y UserService repite la comprobación del lote sin filtro, pero cada fallo cuesta una
+// escritura descartada. Por eso es opcional (app.users.key-filter.enabled=true)
+@Component
+@ConditionalOnProperty(name = "app.users.key-filter.enabled", havingValue = "true")
+public class BloomUserKeyFilterAdapter implements UserKeyFilterPort, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(BloomUserKeyFilterAdapter.class);
+    // Usernames y emails comparten filtro con semillas distintas: "x" como username no colisiona con "x" como email
+    private static final long USERNAME_SEED = 0x7573657226L;
+    private static final long EMAIL_SEED = 0x656D61696CL;
+    
+    private final UserRepositoryPort userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMillis;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Timer rebuildTimer;
+    
+    // add() toma el de lectura y la reconstrucción el de escritura solo al publicar 'building' y al sustituir
+    // 'current': una clave añadida durante el recorrido no puede quedarse solo en el filtro que se descarta
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // null hasta la primera carga
+    private volatile BloomFilter current;
+    // Filtro en construcción: recibe también las claves nuevas para no perder las escritas durante el recorrido
+    private volatile BloomFilter building;
+    private volatile ScheduledExecutorService executor;
+    
+    public BloomUserKeyFilterAdapter(
+            UserRepositoryPort userRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.users.key-filter.expected-users:1000000}") long expectedUsers,
+            @Value("${app.users.key-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.users.key-filter.rebuild-interval:6h}") Duration rebuildInterval) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMillis = rebuildInterval.toMillis();
+        // Comprueba la configuración al arrancar y no en la primera carga en segundo plano
+        BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.absent = Counter.builder("user.key.filter.checks")
+                .description("Uniqueness checks answered by the key filter")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.maybePresent = Counter.builder("user.key.filter.checks")
+                .description("Uniqueness checks answered by the key filter")
+                .tag("result", "maybe_present")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("user.key.filter.rebuild")
+                .description("Time to load the key filter from the database")
+                .register(meterRegistry);
+        Gauge.builder("user.key.filter.memory", this, adapter -> adapter.stat(BloomFilter::sizeInBytes))
+                .description("Memory used by the key filters being served and built")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.key.filter.keys", this, adapter -> adapter.currentStat(BloomFilter::insertions))
+                .description("Keys added to the key filter being served")
+                .register(meterRegistry);
+        Gauge.builder("user.key.filter.expected.fpp", this, BloomUserKeyFilterAdapter::currentFalsePositiveRate)
+                .description("Expected false-positive rate given the keys added so far")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public boolean mightContainUsername(String username) {
+        return check(username, USERNAME_SEED);
+    }
+    
+    @Override
+    public boolean mightContainEmail(String email) {
+        return check(email, EMAIL_SEED);
+    }
+    
+    @Override
+    public void add(String username, String email) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(username, USERNAME_SEED);
+                next.put(email, EMAIL_SEED);
+            }
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(username, USERNAME_SEED);
+                filter.put(email, EMAIL_SEED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Recorre todos los usuarios vivos en un filtro nuevo y lo sustituye al terminar. Si los usuarios superan la
+    // capacidad configurada, el nuevo filtro se dimensiona con margen para no degradar la tasa de falsos positivos
+    public synchronized BloomFilterStats rebuild() {
+        long start = System.nanoTime();
+        BloomFilter previous = current;
+        long capacity = expectedUsers;
+        if (previous != null) {
+            capacity = Math.max(capacity, previous.insertions() / 2 * 5 / 4);
+        }
+        BloomFilter next = BloomFilter.create(capacity * 2, falsePositiveRate);
+        // add() se llama tras el commit: lo confirmado antes de este punto lo ve el recorrido y lo posterior entra
+        // también en 'next'
+        swap(() -> building = next);
+        boolean loaded = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> userRepository.streamAll(false, user -> {
+                next.put(user.getUsername(), USERNAME_SEED);
+                next.put(user.getEmail(), EMAIL_SEED);
+            }));
+            loaded = true;
+        } finally {
+            boolean publish = loaded;
+            swap(() -> {
+                if (publish) {
+                    current = next;
+                }
+                building = null;
+            });
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        BloomFilterStats stats = stats();
+        log.info("User key filter rebuilt: {} keys, {} bytes, expected false-positive rate {}", stats.getKeys(),
+                stats.getSizeInBytes(), stats.getExpectedFalsePositiveRate());
+        return stats;
+    }
+    
+    public BloomFilterStats stats() {
+        return new BloomFilterStats(current != null, currentStat(BloomFilter::insertions),
+                currentStat(BloomFilter::sizeInBytes), currentFalsePositiveRate(), falsePositiveRate);
+    }
+    
+    @Override
+    public synchronized void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-key-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::rebuildSafely, 0, rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public synchronized void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+    
+    private void swap(Runnable action) {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean check(String key, long seed) {
+        BloomFilter filter = current;
+        if (filter != null && !filter.mightContain(key, seed)) {
+            absent.increment();
+            return false;
+        }
+        maybePresent.increment();
+        return true;
+    }
+    
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // Se sigue sirviendo el filtro anterior (o ninguno) hasta la siguiente reconstrucción
+            log.warn("User key filter rebuild failed", ex);
+        }
+    }
+    
+    private long currentStat(ToLongFunction<BloomFilter> stat) {
+        BloomFilter filter = current;
+        return filter == null ? 0 : stat.applyAsLong(filter);
+    }
+    
+    private long stat(ToLongFunction<BloomFilter> stat) {
+        BloomFilter next = building;
+        return currentStat(stat) + (next == null ? 0 : stat.applyAsLong(next));
+    }
+    
+    private double currentFalsePositiveRate() {
+        BloomFilter filter = current;
+        return filter == null ? 1.0 : filter.expectedFalsePositiveRate();
+    }
+}
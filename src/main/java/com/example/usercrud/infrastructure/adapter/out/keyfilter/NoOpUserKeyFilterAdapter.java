@@ -0,0 +1,25 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+import com.example.usercrud.application.port.out.UserKeyFilterPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Por defecto (app.users.key-filter.enabled distinto de true): todas las comprobaciones de unicidad van a la BD
+@Component
+@ConditionalOnProperty(name = "app.users.key-filter.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpUserKeyFilterAdapter implements UserKeyFilterPort {
+    
+    @Override
+    public boolean mightContainUsername(String username) {
+        return true;
+    }
+    
+    @Override
+    public boolean mightContainEmail(String email) {
+        return true;
+    }
+    
+    @Override
+    public void add(String username, String email) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/userkeyfilter: estado del filtro; POST: lo reconstruye desde la BD (p. ej. tras una carga masiva
+// hecha por fuera de la aplicación) y devuelve el estado resultante
+@Component
+@Endpoint(id = "userkeyfilter")
+@ConditionalOnProperty(name = "app.users.key-filter.enabled", havingValue = "true")
+public class UserKeyFilterEndpoint {
+    
+    private final BloomUserKeyFilterAdapter keyFilter;
+    
+    public UserKeyFilterEndpoint(BloomUserKeyFilterAdapter keyFilter) {
+        this.keyFilter = keyFilter;
+    }
+    
+    @ReadOperation
+    public BloomFilterStats stats() {
+        return keyFilter.stats();
+    }
+    
+    @WriteOperation
+    public BloomFilterStats rebuild() {
+        return keyFilter.rebuild();
+    }
+}
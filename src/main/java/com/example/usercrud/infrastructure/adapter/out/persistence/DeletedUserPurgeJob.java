@@ -0,0 +1,143 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Elimina físicamente los usuarios con borrado lógico más antiguos que la retención. Cada lote es una sentencia
+// corta en su propia transacción y entre lotes se hace una pausa: el volumen de filas muertas que genera para el
+// vacuum y el tiempo que retiene bloqueos quedan acotados aunque haya millones de lápidas acumuladas
+@Component
+@ConditionalOnProperty(name = "app.users.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class DeletedUserPurgeJob implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(DeletedUserPurgeJob.class);
+    
+    private final UserRepositoryPort userRepository;
+    private final Clock clock;
+    private final Duration retention;
+    private final int batchSize;
+    private final long initialDelayMillis;
+    private final long intervalMillis;
+    private final long batchPauseMillis;
+    private final Counter purged;
+    private final Timer batchTimer;
+    
+    private volatile ScheduledExecutorService executor;
+    // Lápida más antigua vista en la última ejecución (null si no quedaba ninguna)
+    private volatile Instant oldestDeletedAt;
+    
+    public DeletedUserPurgeJob(
+            UserRepositoryPort userRepository,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.users.purge.retention:30d}") Duration retention,
+            @Value("${app.users.purge.batch-size:1000}") int batchSize,
+            @Value("${app.users.purge.initial-delay:1m}") Duration initialDelay,
+            @Value("${app.users.purge.interval:1h}") Duration interval,
+            @Value("${app.users.purge.batch-pause:100ms}") Duration batchPause) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.initialDelayMillis = initialDelay.toMillis();
+        this.intervalMillis = interval.toMillis();
+        this.batchPauseMillis = batchPause.toMillis();
+        this.purged = Counter.builder("user.purge.deleted")
+                .description("Soft-deleted users physically removed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("user.purge.batch")
+                .description("Latency of each purge batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("user.purge.lag", this, DeletedUserPurgeJob::lagSeconds)
+                .description("How long the oldest soft-deleted user has been past the retention window")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public synchronized void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runSafely, initialDelayMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public synchronized void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+    
+    // Devuelve el número de usuarios eliminados
+    public int purge() {
+        Instant cutoff = clock.instant().minus(retention);
+        int total = 0;
+        int batch;
+        do {
+            long start = System.nanoTime();
+            batch = userRepository.purgeDeleted(cutoff, batchSize);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            purged.increment(batch);
+            total += batch;
+        } while (batch == batchSize && pause());
+        oldestDeletedAt = userRepository.findOldestDeletedAt().orElse(null);
+        return total;
+    }
+    
+    private void runSafely() {
+        try {
+            int total = purge();
+            if (total > 0) {
+                log.info("Purged {} soft-deleted users older than {}", total, retention);
+            }
+        } catch (RuntimeException ex) {
+            // Lo pendiente se purga en la siguiente ejecución
+            log.warn("User purge failed", ex);
+        }
+    }
+    
+    // false si el job se está parando
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private double lagSeconds() {
+        Instant oldest = oldestDeletedAt;
+        if (oldest == null) {
+            return 0;
+        }
+        long lagMillis = Duration.between(oldest.plus(retention), clock.instant()).toMillis();
+        return Math.max(0, lagMillis) / 1000.0;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.routing.ReadYourWritesContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Agrupa las búsquedas por clave que llegan a la vez (single-flight): la primera llamada para un id, username o
+// email consulta la BD y las que llegan mientras tanto esperan su resultado en lugar de lanzar la misma consulta.
+// Compartir el resultado es seguro porque User es inmutable. La espera está acotada: pasado max-wait cada hilo
+// hace su propia consulta. No se agrupan las lecturas dentro de una transacción de escritura (deben ver sus propios
+// cambios) ni las que tienen que ir al primario tras una escritura del mismo cliente
+public class SingleFlightUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private final UserRepositoryPort delegate;
+    private final long maxWaitNanos;
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<User>>> findsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Optional<User>>> findsByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Optional<User>>> findsByEmail = new ConcurrentHashMap<>();
+    private final Calls byId;
+    private final Calls byUsername;
+    private final Calls byEmail;
+    
+    public SingleFlightUserRepositoryAdapter(UserRepositoryPort delegate, Duration maxWait,
+                                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.byId = new Calls("findById", meterRegistry);
+        this.byUsername = new Calls("findByUsername", meterRegistry);
+        this.byEmail = new Calls("findByEmail", meterRegistry);
+        Gauge.builder("user.repository.singleflight.in.flight", this, SingleFlightUserRepositoryAdapter::inFlight)
+                .description("Lookups currently shared by concurrent callers")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public User save(User user) {
+        return delegate.save(user);
+    }
+    
+    @Override
+    public User insert(User user) {
+        return delegate.insert(user);
+    }
+    
+    @Override
+    public Optional<User> updateDetails(UUID id, Long expectedVersion, String username, String email,
+                                        String firstName, String lastName, Instant updatedAt) {
+        return delegate.updateDetails(id, expectedVersion, username, email, firstName, lastName, updatedAt);
+    }
+    
+    @Override
+    public Optional<User> updateActive(UUID id, boolean active, Instant updatedAt) {
+        return delegate.updateActive(id, active, updatedAt);
+    }
+    
+    @Override
+    public Optional<User> findById(UUID id) {
+        return coalesce(findsById, id, byId, () -> delegate.findById(id));
+    }
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return coalesce(findsByUsername, username, byUsername, () -> delegate.findByUsername(username));
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return coalesce(findsByEmail, email, byEmail, () -> delegate.findByEmail(email));
+    }
+    
+    @Override
+    public boolean existsByUsername(String username) {
+        return delegate.existsByUsername(username);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public List<User> findAllActive() {
+        return delegate.findAllActive();
+    }
+    
+    @Override
+    public List<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        return delegate.findPage(after, limit, activeOnly);
+    }
+    
+    @Override
+    public List<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        return delegate.searchUsers(query, filter, after, limit);
+    }
+    
+    @Override
+    public void streamAll(boolean activeOnly, Consumer<User> consumer) {
+        delegate.streamAll(activeOnly, consumer);
+    }
+    
+    @Override
+    public Optional<User> deleteById(UUID id, Instant deletedAt) {
+        return delegate.deleteById(id, deletedAt);
+    }
+    
+    @Override
+    public List<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        return delegate.findChanges(after, before, limit);
+    }
+    
+    @Override
+    public int purgeDeleted(Instant deletedBefore, int limit) {
+        return delegate.purgeDeleted(deletedBefore, limit);
+    }
+    
+    @Override
+    public Optional<Instant> findOldestDeletedAt() {
+        return delegate.findOldestDeletedAt();
+    }
+    
+    @Override
+    public List<User> findAllByIdOrUsernameOrEmail(Collection<UUID> ids, Collection<String> usernames,
+                                                   Collection<String> emails) {
+        return delegate.findAllByIdOrUsernameOrEmail(ids, usernames, emails);
+    }
+    
+    @Override
+    public void insertAll(List<User> users) {
+        delegate.insertAll(users);
+    }
+    
+    @Override
+    public Set<UUID> updateAllDetails(List<User> users) {
+        return delegate.updateAllDetails(users);
+    }
+    
+    @Override
+    public List<User> deactivateAll(Collection<UUID> ids, Instant updatedAt) {
+        return delegate.deactivateAll(ids, updatedAt);
+    }
+    
+    private <K> Optional<User> coalesce(ConcurrentMap<K, CompletableFuture<Optional<User>>> inFlight, K key,
+                                        Calls calls, Supplier<Optional<User>> query) {
+        if (key == null || !canShare()) {
+            return query.get();
+        }
+        CompletableFuture<Optional<User>> own = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> shared = inFlight.putIfAbsent(key, own);
+        if (shared == null) {
+            calls.leaders.increment();
+            try {
+                Optional<User> result = query.get();
+                own.complete(result);
+                return result;
+            } catch (RuntimeException | Error ex) {
+                own.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                // Solo se quita su propia entrada: la siguiente llamada vuelve a consultar la BD
+                inFlight.remove(key, own);
+            }
+        }
+        calls.followers.increment();
+        return await(shared, calls, query);
+    }
+    
+    private Optional<User> await(CompletableFuture<Optional<User>> shared, Calls calls,
+                                 Supplier<Optional<User>> query) {
+        try {
+            return shared.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // La consulta compartida va lenta: no se encadena más espera, se consulta por cuenta propia
+            calls.timeouts.increment();
+            return query.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted while waiting for a shared lookup", ex);
+        } catch (ExecutionException ex) {
+            // El error de la consulta compartida llega a todos los que la esperaban
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    private static boolean canShare() {
+        if (ReadYourWritesContext.isPrimaryRequired()) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+    
+    private int inFlight() {
+        return findsById.size() + findsByUsername.size() + findsByEmail.size();
+    }
+    
+    // Ratio de agrupación = follower / (leader + follower)
+    private static final class Calls {
+        
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter timeouts;
+        
+        private Calls(String operation, MeterRegistry meterRegistry) {
+            this.leaders = Counter.builder("user.repository.singleflight")
+                    .description("Lookups by key, by whether they queried the database or shared another call")
+                    .tag("operation", operation)
+                    .tag("role", "leader")
+                    .register(meterRegistry);
+            this.followers = Counter.builder("user.repository.singleflight")
+                    .description("Lookups by key, by whether they queried the database or shared another call")
+                    .tag("operation", operation)
+                    .tag("role", "follower")
+                    .register(meterRegistry);
+            this.timeouts = Counter.builder("user.repository.singleflight.timeouts")
+                    .description("Shared lookups abandoned after max-wait that queried the database themselves")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Las columnas son TIMESTAMP sin zona y guardan instantes en UTC; la conversión se hace aquí, con independencia
+// de la zona horaria de la JVM y de la sesión
+public final class JdbcTimestamps {
+    
+    private JdbcTimestamps() {
+    }
+    
+    public static LocalDateTime toDb(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+    
+    public static Instant get(ResultSet rs, int column) throws SQLException {
+        return fromDb(rs.getObject(column, LocalDateTime.class));
+    }
+    
+    public static Instant fromDb(LocalDateTime value) {
+        return value == null ? null : value.toInstant(ZoneOffset.UTC);
+    }
+}
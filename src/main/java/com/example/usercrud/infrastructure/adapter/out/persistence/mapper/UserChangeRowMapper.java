@@ -0,0 +1,33 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.mapper;
+
+import com.example.usercrud.domain.UserChange;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+// Filas del feed de cambios: las columnas de UserRowMapper más 'deleted'. En los usuarios borrados updated_at es
+// la fecha de borrado
+public final class UserChangeRowMapper implements RowMapper<UserChange> {
+    
+    // Orden de columnas que debe respetar cualquier SELECT que use este mapper
+    public static final String COLUMNS = UserRowMapper.COLUMNS + ", deleted_at IS NOT NULL AS deleted";
+    
+    public static final UserChangeRowMapper INSTANCE = new UserChangeRowMapper();
+    
+    private UserChangeRowMapper() {
+    }
+    
+    @Override
+    public UserChange mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs.getBoolean(10)) {
+            return UserChange.deleted(
+                rs.getObject(1, UUID.class),
+                rs.getLong(9),
+                JdbcTimestamps.get(rs, 7)
+            );
+        }
+        return UserChange.upserted(UserRowMapper.INSTANCE.mapRow(rs, rowNum));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.mapper;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserEvent;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+// Reconstruye los eventos del outbox; las columnas del usuario son nulas en los eventos DELETED
+public final class UserEventRowMapper implements RowMapper<UserEvent> {
+    
+    // Orden de columnas que debe respetar cualquier SELECT que use este mapper
+    public static final String COLUMNS =
+            "id, event_type, user_id, user_version, occurred_at, " +
+            "username, email, first_name, last_name, created_at, updated_at, active";
+    
+    public static final UserEventRowMapper INSTANCE = new UserEventRowMapper();
+    
+    private UserEventRowMapper() {
+    }
+    
+    @Override
+    public UserEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        UUID userId = rs.getObject(3, UUID.class);
+        long version = rs.getLong(4);
+        String username = rs.getString(6);
+        User user = username == null ? null : new User(
+            userId,
+            username,
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            JdbcTimestamps.get(rs, 10),
+            JdbcTimestamps.get(rs, 11),
+            rs.getBoolean(12),
+            version
+        );
+        return new UserEvent(
+            rs.getLong(1),
+            UserEvent.Type.valueOf(rs.getString(2)),
+            userId,
+            version,
+            JdbcTimestamps.get(rs, 5),
+            user
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.mapper;
+
+import com.example.usercrud.domain.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+// Mapea directamente cada fila al constructor de persistencia de User, sin entidades intermedias
+public final class UserRowMapper implements RowMapper<User> {
+    
+    // Orden de columnas que debe respetar cualquier SELECT que use este mapper
+    public static final String COLUMNS =
+            "id, username, email, first_name, last_name, created_at, updated_at, active, version";
+    
+    public static final UserRowMapper INSTANCE = new UserRowMapper();
+    
+    private UserRowMapper() {
+    }
+    
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new User(
+            rs.getObject(1, UUID.class),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            JdbcTimestamps.get(rs, 6),
+            JdbcTimestamps.get(rs, 7),
+            rs.getBoolean(8),
+            rs.getLong(9)
+        );
+    }
+}
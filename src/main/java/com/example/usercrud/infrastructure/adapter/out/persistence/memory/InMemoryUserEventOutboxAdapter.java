@@ -0,0 +1,75 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.memory;
+
+import com.example.usercrud.application.port.out.UserEventOutboxPort;
+import com.example.usercrud.domain.UserEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outbox en memoria (perfil "memory"): misma semántica de secuencias que user_outbox, sin transacciones reales
+@Repository
+@Profile("memory")
+public class InMemoryUserEventOutboxAdapter implements UserEventOutboxPort {
+    
+    private final NavigableMap<Long, UserEvent> events = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Fin de la reserva (System.nanoTime) de los eventos entregados a un relay
+    private final Map<Long, Long> claimedUntil = new ConcurrentHashMap<>();
+    
+    @Override
+    public void append(UserEvent event) {
+        long next = sequence.incrementAndGet();
+        events.put(next, new UserEvent(next, event.getType(), event.getUserId(), event.getVersion(),
+                event.getOccurredAt(), event.getUser()));
+    }
+    
+    @Override
+    public void appendAll(List<UserEvent> events) {
+        for (UserEvent event : events) {
+            append(event);
+        }
+    }
+    
+    @Override
+    public synchronized List<UserEvent> claimPending(int limit, Duration lease) {
+        long now = System.nanoTime();
+        List<UserEvent> pending = new ArrayList<>(Math.min(limit, 1024));
+        for (UserEvent event : events.values()) {
+            if (pending.size() == limit) {
+                break;
+            }
+            Long until = claimedUntil.get(event.getSequence());
+            if (until == null || until - now < 0) {
+                claimedUntil.put(event.getSequence(), now + lease.toNanos());
+                pending.add(event);
+            }
+        }
+        return pending;
+    }
+    
+    // Sincronizados con claimPending, como los bloqueos de fila en user_outbox: sin ello una reserva que ya recorría
+    // el mapa podía ver un evento recién borrado, sin reserva, y volver a entregarlo
+    @Override
+    public synchronized void release(Collection<Long> sequences) {
+        for (Long sequence : sequences) {
+            claimedUntil.remove(sequence);
+        }
+    }
+    
+    @Override
+    public synchronized void delete(Collection<Long> sequences) {
+        for (Long sequence : sequences) {
+            events.remove(sequence);
+            claimedUntil.remove(sequence);
+        }
+    }
+}
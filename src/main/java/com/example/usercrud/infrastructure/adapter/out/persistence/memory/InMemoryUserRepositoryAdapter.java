@@ -0,0 +1,377 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.memory;
+
+import com.example.usercrud.application.port.out.DuplicateUserKeyException;
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.config.PersistenceConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+// Adaptador en memoria (perfil "memory"): permite arrancar la aplicación y ejecutar benchmarks sin PostgreSQL.
+// User es inmutable, así que se guardan y devuelven las mismas instancias sin copias defensivas.
+@Repository
+@Qualifier(PersistenceConfig.PERSISTENCE_ADAPTER)
+@Profile("memory")
+public class InMemoryUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private static final Comparator<UserCursor> KEYSET_ORDER = Comparator
+            .comparing(UserCursor::getCreatedAt)
+            .thenComparing(UserCursor::getId);
+    private static final Comparator<User> USER_KEYSET_ORDER = Comparator
+            .comparing(User::getCreatedAt)
+            .thenComparing(User::getId);
+    private static final Comparator<UserChangeCursor> CHANGE_ORDER = Comparator
+            .comparing(UserChangeCursor::getChangedAt)
+            .thenComparing(UserChangeCursor::getId);
+    
+    private final Map<UUID, User> usersById = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idsByEmail = new ConcurrentHashMap<>();
+    private final NavigableMap<UserCursor, UUID> idsByKeyset = new ConcurrentSkipListMap<>(KEYSET_ORDER);
+    private final NavigableMap<UserChangeCursor, UUID> idsByChange = new ConcurrentSkipListMap<>(CHANGE_ORDER);
+    // Usuarios con borrado lógico pendientes de purgar; siguen en idsByChange con la fecha de borrado
+    private final Map<UUID, UserChange> tombstones = new ConcurrentHashMap<>();
+    private final InMemoryUserSearchIndex searchIndex = new InMemoryUserSearchIndex();
+    
+    @Override
+    public synchronized User save(User user) {
+        User previous = usersById.get(user.getId());
+        if (previous == null) {
+            return insert(user);
+        }
+        replace(previous, new User(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getCreatedAt(), user.getUpdatedAt(), user.isActive(),
+                previous.getVersion() + 1));
+        return user;
+    }
+    
+    @Override
+    public synchronized User insert(User user) {
+        if (idsByUsername.containsKey(user.getUsername())) {
+            throw new DuplicateUserKeyException(DuplicateUserKeyException.Key.USERNAME, null);
+        }
+        if (idsByEmail.containsKey(user.getEmail())) {
+            throw new DuplicateUserKeyException(DuplicateUserKeyException.Key.EMAIL, null);
+        }
+        usersById.put(user.getId(), user);
+        idsByUsername.put(user.getUsername(), user.getId());
+        idsByEmail.put(user.getEmail(), user.getId());
+        idsByKeyset.put(UserCursor.of(user), user.getId());
+        idsByChange.put(changeKey(user), user.getId());
+        searchIndex.add(user);
+        return user;
+    }
+    
+    @Override
+    public synchronized Optional<User> updateDetails(UUID id, Long expectedVersion, String username, String email,
+                                                     String firstName, String lastName, Instant updatedAt) {
+        User previous = usersById.get(id);
+        if (previous == null || (expectedVersion != null && previous.getVersion() != expectedVersion)) {
+            return Optional.empty();
+        }
+        User updated = previous.withDetails(username, email, firstName, lastName, updatedAt);
+        replace(previous, updated);
+        return Optional.of(updated);
+    }
+    
+    @Override
+    public synchronized Optional<User> updateActive(UUID id, boolean active, Instant updatedAt) {
+        User previous = usersById.get(id);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        User updated = previous.withActive(active, updatedAt);
+        replace(previous, updated);
+        return Optional.of(updated);
+    }
+    
+    @Override
+    public Optional<User> findById(UUID id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        UUID id = idsByUsername.get(username);
+        return id == null ? Optional.empty() : findById(id);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        UUID id = idsByEmail.get(email);
+        return id == null ? Optional.empty() : findById(id);
+    }
+    
+    @Override
+    public boolean existsByUsername(String username) {
+        return idsByUsername.containsKey(username);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(email);
+    }
+    
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>(usersById.size());
+        streamAll(false, users::add);
+        return users;
+    }
+    
+    @Override
+    public List<User> findAllActive() {
+        List<User> users = new ArrayList<>();
+        streamAll(true, users::add);
+        return users;
+    }
+    
+    @Override
+    public List<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        Collection<UUID> ids = after == null ? idsByKeyset.values() : idsByKeyset.tailMap(after, false).values();
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        for (UUID id : ids) {
+            if (page.size() == limit) {
+                break;
+            }
+            User user = usersById.get(id);
+            if (user != null && (!activeOnly || user.isActive())) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+    
+    @Override
+    public List<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        // Top-k en orden keyset con un heap acotado (el mayor en la cabeza): no se ordenan todas las coincidencias
+        PriorityQueue<User> top = new PriorityQueue<>(Math.min(limit, 1024), USER_KEYSET_ORDER.reversed());
+        Boolean active = filter.getActive();
+        Consumer<UUID> collector = id -> {
+            User user = usersById.get(id);
+            if (user == null || (active != null && user.isActive() != active)
+                    || (after != null && KEYSET_ORDER.compare(UserCursor.of(user), after) <= 0)) {
+                return;
+            }
+            if (top.size() < limit) {
+                top.add(user);
+            } else if (USER_KEYSET_ORDER.compare(user, top.peek()) < 0) {
+                top.poll();
+                top.add(user);
+            }
+        };
+        if (filter.getMatch() == UserSearchFilter.Match.PREFIX) {
+            searchIndex.forEachPrefixMatch(query, collector);
+        } else {
+            searchIndex.forEachFuzzyMatch(query, collector);
+        }
+        List<User> page = new ArrayList<>(top.size());
+        for (User user : top) {
+            page.add(user);
+        }
+        page.sort(USER_KEYSET_ORDER);
+        return page;
+    }
+    
+    @Override
+    public void streamAll(boolean activeOnly, Consumer<User> consumer) {
+        for (UUID id : idsByKeyset.values()) {
+            User user = usersById.get(id);
+            if (user != null && (!activeOnly || user.isActive())) {
+                consumer.accept(user);
+            }
+        }
+    }
+    
+    @Override
+    public synchronized Optional<User> deleteById(UUID id, Instant deletedAt) {
+        User previous = usersById.remove(id);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        idsByUsername.remove(previous.getUsername());
+        idsByEmail.remove(previous.getEmail());
+        idsByKeyset.remove(UserCursor.of(previous));
+        idsByChange.remove(changeKey(previous));
+        searchIndex.remove(previous);
+        User deleted = previous.withActive(previous.isActive(), deletedAt);
+        UserChange tombstone = UserChange.deleted(id, deleted.getVersion(), deletedAt);
+        tombstones.put(id, tombstone);
+        idsByChange.put(UserChangeCursor.of(tombstone), id);
+        return Optional.of(deleted);
+    }
+    
+    @Override
+    public List<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        Collection<Map.Entry<UserChangeCursor, UUID>> entries =
+                (after == null ? idsByChange : idsByChange.tailMap(after, false)).entrySet();
+        List<UserChange> changes = new ArrayList<>(Math.min(limit, 1024));
+        for (Map.Entry<UserChangeCursor, UUID> entry : entries) {
+            if (changes.size() == limit || !entry.getKey().getChangedAt().isBefore(before)) {
+                break;
+            }
+            // Una modificación concurrente puede haber movido ya al usuario a una posición posterior
+            User user = usersById.get(entry.getValue());
+            if (user != null) {
+                if (CHANGE_ORDER.compare(changeKey(user), entry.getKey()) == 0) {
+                    changes.add(UserChange.upserted(user));
+                }
+                continue;
+            }
+            UserChange tombstone = tombstones.get(entry.getValue());
+            if (tombstone != null && CHANGE_ORDER.compare(UserChangeCursor.of(tombstone), entry.getKey()) == 0) {
+                changes.add(tombstone);
+            }
+        }
+        return changes;
+    }
+    
+    @Override
+    public synchronized int purgeDeleted(Instant deletedBefore, int limit) {
+        List<UserChange> expired = new ArrayList<>();
+        for (UserChange tombstone : tombstones.values()) {
+            if (tombstone.getChangedAt().isBefore(deletedBefore)) {
+                expired.add(tombstone);
+            }
+        }
+        expired.sort(Comparator.comparing(UserChange::getChangedAt));
+        List<UserChange> purged = expired.subList(0, Math.min(limit, expired.size()));
+        for (UserChange tombstone : purged) {
+            tombstones.remove(tombstone.getUserId());
+            idsByChange.remove(UserChangeCursor.of(tombstone));
+        }
+        return purged.size();
+    }
+    
+    @Override
+    public Optional<Instant> findOldestDeletedAt() {
+        Instant oldest = null;
+        for (UserChange tombstone : tombstones.values()) {
+            if (oldest == null || tombstone.getChangedAt().isBefore(oldest)) {
+                oldest = tombstone.getChangedAt();
+            }
+        }
+        return Optional.ofNullable(oldest);
+    }
+    
+    @Override
+    public List<User> findAllByIdOrUsernameOrEmail(Collection<UUID> ids, Collection<String> usernames,
+                                                   Collection<String> emails) {
+        Set<UUID> matches = new HashSet<>();
+        for (UUID id : ids) {
+            if (usersById.containsKey(id)) {
+                matches.add(id);
+            }
+        }
+        for (String username : usernames) {
+            UUID id = idsByUsername.get(username);
+            if (id != null) {
+                matches.add(id);
+            }
+        }
+        for (String email : emails) {
+            UUID id = idsByEmail.get(email);
+            if (id != null) {
+                matches.add(id);
+            }
+        }
+        List<User> users = new ArrayList<>(matches.size());
+        for (UUID id : matches) {
+            findById(id).ifPresent(users::add);
+        }
+        return users;
+    }
+    
+    @Override
+    public synchronized void insertAll(List<User> users) {
+        // Se comprueba todo el lote antes de escribir para no dejarlo a medias, como el rollback al savepoint en JDBC
+        for (User user : users) {
+            checkKeysAvailable(user);
+        }
+        for (User user : users) {
+            insert(user);
+        }
+    }
+    
+    @Override
+    public synchronized Set<UUID> updateAllDetails(List<User> users) {
+        for (User user : users) {
+            checkKeysAvailable(user);
+        }
+        Set<UUID> updated = new HashSet<>();
+        for (User user : users) {
+            User previous = usersById.get(user.getId());
+            if (previous != null && previous.getVersion() == user.getVersion() - 1) {
+                replace(previous, new User(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                        user.getLastName(), previous.getCreatedAt(), user.getUpdatedAt(), previous.isActive(),
+                        user.getVersion()));
+                updated.add(user.getId());
+            }
+        }
+        return updated;
+    }
+    
+    @Override
+    public synchronized List<User> deactivateAll(Collection<UUID> ids, Instant updatedAt) {
+        List<User> deactivated = new ArrayList<>();
+        for (UUID id : ids) {
+            User previous = usersById.get(id);
+            if (previous != null) {
+                User updated = previous.withActive(false, updatedAt);
+                replace(previous, updated);
+                deactivated.add(updated);
+            }
+        }
+        return deactivated;
+    }
+    
+    // Sustituye la versión almacenada manteniendo los índices secundarios y sus restricciones de unicidad
+    private void replace(User previous, User updated) {
+        checkKeysAvailable(updated);
+        idsByUsername.remove(previous.getUsername());
+        idsByEmail.remove(previous.getEmail());
+        usersById.put(updated.getId(), updated);
+        idsByChange.remove(changeKey(previous));
+        idsByChange.put(changeKey(updated), updated.getId());
+        idsByUsername.put(updated.getUsername(), updated.getId());
+        idsByEmail.put(updated.getEmail(), updated.getId());
+        searchIndex.update(previous, updated);
+    }
+    
+    // Las claves del usuario solo pueden estar libres o ser ya suyas
+    private void checkKeysAvailable(User user) {
+        UUID usernameOwner = idsByUsername.get(user.getUsername());
+        if (usernameOwner != null && !usernameOwner.equals(user.getId())) {
+            throw new DuplicateUserKeyException(DuplicateUserKeyException.Key.USERNAME, null);
+        }
+        UUID emailOwner = idsByEmail.get(user.getEmail());
+        if (emailOwner != null && !emailOwner.equals(user.getId())) {
+            throw new DuplicateUserKeyException(DuplicateUserKeyException.Key.EMAIL, null);
+        }
+    }
+    
+    private static UserChangeCursor changeKey(User user) {
+        return new UserChangeCursor(user.getUpdatedAt(), user.getId());
+    }
+}
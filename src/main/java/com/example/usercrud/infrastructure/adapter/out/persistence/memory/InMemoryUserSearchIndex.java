@@ -0,0 +1,239 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.memory;
+
+import com.example.usercrud.domain.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Índice invertido para searchUsers en el adaptador en memoria, equivalente a los índices de PostgreSQL:
+// términos completos ordenados para los prefijos (text_pattern_ops) y listas de trigramas para la búsqueda
+// difusa (pg_trgm). Cada versión indexada de un usuario es un documento con un número creciente, de modo que las
+// listas de trigramas quedan ordenadas y se pueden cruzar con un merge. Los documentos sustituidos solo
+// se marcan como muertos y el índice se reconstruye cuando superan a los vivos.
+class InMemoryUserSearchIndex {
+    
+    // Mismo umbral por defecto que pg_trgm.word_similarity_threshold
+    private static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 1024;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, IntList> docsByTerm = new TreeMap<>();
+    private final Map<String, IntList> docsByTrigram = new HashMap<>();
+    private final Map<UUID, Integer> docsByUserId = new HashMap<>();
+    private User[] docs = new User[1024];
+    private int docCount;
+    private int deadDocs;
+    
+    void add(User user) {
+        lock.writeLock().lock();
+        try {
+            index(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Solo reindexa si cambia algún campo buscable (activar/desactivar no toca el índice)
+    void update(User previous, User updated) {
+        if (sameText(previous, updated)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(previous.getId());
+            index(updated);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void remove(User user) {
+        lock.writeLock().lock();
+        try {
+            unindex(user.getId());
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Usuarios con algún campo que empieza por 'prefix' (en minúsculas), cada uno una sola vez
+    void forEachPrefixMatch(String prefix, Consumer<UUID> consumer) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet(docCount);
+            for (IntList termDocs : docsByTerm.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < termDocs.size; i++) {
+                    matches.set(termDocs.values[i]);
+                }
+            }
+            emit(matches, consumer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Usuarios que contienen al menos el 60% de los trigramas de la consulta (aproximación de word_similarity)
+    void forEachFuzzyMatch(String query, Consumer<UUID> consumer) {
+        List<String> trigrams = new ArrayList<>(trigrams(query));
+        if (trigrams.isEmpty()) {
+            return;
+        }
+        int minHits = (int) Math.ceil(WORD_SIMILARITY_THRESHOLD * trigrams.size());
+        lock.readLock().lock();
+        try {
+            IntList[] postings = new IntList[trigrams.size()];
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = docsByTrigram.getOrDefault(trigrams.get(i), IntList.EMPTY);
+            }
+            // Un documento con minHits trigramas de la consulta tiene que estar en alguna de las
+            // (n - minHits + 1) listas más cortas: los candidatos salen solo de ellas
+            Arrays.sort(postings, (a, b) -> Integer.compare(a.size, b.size));
+            int candidateLists = postings.length - minHits + 1;
+            BitSet candidates = new BitSet(docCount);
+            for (int i = 0; i < candidateLists; i++) {
+                for (int j = 0; j < postings[i].size; j++) {
+                    candidates.set(postings[i].values[j]);
+                }
+            }
+            // Los candidatos se recorren en orden creciente, igual que las listas: la verificación es un merge
+            // con un puntero por lista, sin búsquedas binarias
+            int[] positions = new int[postings.length];
+            BitSet matches = new BitSet(docCount);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                int hits = 0;
+                for (int i = 0; i < postings.length; i++) {
+                    IntList posting = postings[i];
+                    int position = positions[i];
+                    while (position < posting.size && posting.values[position] < doc) {
+                        position++;
+                    }
+                    positions[i] = position;
+                    if (position < posting.size && posting.values[position] == doc) {
+                        hits++;
+                    }
+                }
+                if (hits >= minHits) {
+                    matches.set(doc);
+                }
+            }
+            emit(matches, consumer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void emit(BitSet matches, Consumer<UUID> consumer) {
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            User user = docs[doc];
+            if (user != null) {
+                consumer.accept(user.getId());
+            }
+        }
+    }
+    
+    private void index(User user) {
+        if (docCount == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        int doc = docCount++;
+        docs[doc] = user;
+        docsByUserId.put(user.getId(), doc);
+        Set<String> terms = terms(user);
+        for (String term : terms) {
+            docsByTerm.computeIfAbsent(term, key -> new IntList()).add(doc);
+        }
+        for (String trigram : trigrams(String.join(" ", terms))) {
+            docsByTrigram.computeIfAbsent(trigram, key -> new IntList()).add(doc);
+        }
+    }
+    
+    private void unindex(UUID id) {
+        Integer doc = docsByUserId.remove(id);
+        if (doc != null) {
+            docs[doc] = null;
+            deadDocs++;
+        }
+    }
+    
+    private void compactIfNeeded() {
+        if (deadDocs < MIN_DEAD_DOCS_TO_COMPACT || deadDocs < docCount - deadDocs) {
+            return;
+        }
+        User[] live = new User[docCount - deadDocs];
+        int n = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docs[doc] != null) {
+                live[n++] = docs[doc];
+            }
+        }
+        docsByTerm.clear();
+        docsByTrigram.clear();
+        docsByUserId.clear();
+        docs = new User[Math.max(1024, live.length * 2)];
+        docCount = 0;
+        deadDocs = 0;
+        for (User user : live) {
+            index(user);
+        }
+    }
+    
+    private static boolean sameText(User a, User b) {
+        return a.getUsername().equals(b.getUsername()) && a.getEmail().equals(b.getEmail())
+                && a.getFirstName().equals(b.getFirstName()) && a.getLastName().equals(b.getLastName());
+    }
+    
+    private static Set<String> terms(User user) {
+        Set<String> terms = new LinkedHashSet<>(4);
+        terms.add(user.getUsername().toLowerCase(Locale.ROOT));
+        terms.add(user.getEmail().toLowerCase(Locale.ROOT));
+        terms.add(user.getFirstName().toLowerCase(Locale.ROOT));
+        terms.add(user.getLastName().toLowerCase(Locale.ROOT));
+        return terms;
+    }
+    
+    // Trigramas al estilo pg_trgm: palabras alfanuméricas en minúsculas con dos espacios delante y uno detrás
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+    
+    // Lista creciente de números de documento; al asignarse en orden queda siempre ordenada
+    private static final class IntList {
+        
+        static final IntList EMPTY = new IntList();
+        
+        int[] values = new int[4];
+        int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
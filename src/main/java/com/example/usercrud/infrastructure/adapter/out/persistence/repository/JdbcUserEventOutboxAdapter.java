@@ -0,0 +1,106 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.repository;
+
+import com.example.usercrud.application.port.out.UserEventOutboxPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserEvent;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.JdbcTimestamps;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.UserEventRowMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+// Outbox en la tabla user_outbox: el INSERT participa en la transacción del servicio que modifica el usuario
+@Repository
+@Profile("!memory")
+public class JdbcUserEventOutboxAdapter implements UserEventOutboxPort {
+    
+    private static final String INSERT =
+            "INSERT INTO user_outbox (event_type, user_id, user_version, occurred_at, " +
+            "username, email, first_name, last_name, created_at, updated_at, active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Empieza siempre por el evento más antiguo sin reservar: recoge las filas que confirmaron después que otras
+    // posteriores. SKIP LOCKED: las filas que otro relay está reservando o borrando se saltan en lugar de esperar
+    private static final String CLAIM_PENDING =
+            "UPDATE user_outbox SET claimed_until = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond' " +
+            "WHERE id IN (SELECT id FROM user_outbox " +
+            "WHERE claimed_until IS NULL OR claimed_until < LOCALTIMESTAMP " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING " + UserEventRowMapper.COLUMNS;
+    private static final String RELEASE = "UPDATE user_outbox SET claimed_until = NULL WHERE id = ANY(?)";
+    private static final String DELETE = "DELETE FROM user_outbox WHERE id = ANY(?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    
+    public JdbcUserEventOutboxAdapter(JdbcTemplate jdbcTemplate,
+                                      @Value("${app.persistence.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    @Override
+    public void append(UserEvent event) {
+        jdbcTemplate.update(INSERT, ps -> bind(ps, event));
+    }
+    
+    @Override
+    public void appendAll(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, events, batchSize, JdbcUserEventOutboxAdapter::bind);
+    }
+    
+    @Override
+    public List<UserEvent> claimPending(int limit, Duration lease) {
+        List<UserEvent> events = new ArrayList<>(jdbcTemplate.query(CLAIM_PENDING, UserEventRowMapper.INSTANCE,
+                lease.toMillis(), limit));
+        // RETURNING no garantiza el orden de la subconsulta
+        events.sort(Comparator.comparingLong(UserEvent::getSequence));
+        return events;
+    }
+    
+    @Override
+    public void release(Collection<Long> sequences) {
+        updateAll(RELEASE, sequences);
+    }
+    
+    @Override
+    public void delete(Collection<Long> sequences) {
+        updateAll(DELETE, sequences);
+    }
+    
+    private void updateAll(String sql, Collection<Long> sequences) {
+        if (sequences.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                sequences.toArray())));
+    }
+    
+    private static void bind(PreparedStatement ps, UserEvent event) throws SQLException {
+        ps.setString(1, event.getType().name());
+        ps.setObject(2, event.getUserId());
+        ps.setLong(3, event.getVersion());
+        ps.setObject(4, JdbcTimestamps.toDb(event.getOccurredAt()));
+        // Sin instantánea del usuario en los DELETED
+        User user = event.getUser();
+        ps.setString(5, user == null ? null : user.getUsername());
+        ps.setString(6, user == null ? null : user.getEmail());
+        ps.setString(7, user == null ? null : user.getFirstName());
+        ps.setString(8, user == null ? null : user.getLastName());
+        ps.setObject(9, user == null ? null : JdbcTimestamps.toDb(user.getCreatedAt()), Types.TIMESTAMP);
+        ps.setObject(10, user == null ? null : JdbcTimestamps.toDb(user.getUpdatedAt()), Types.TIMESTAMP);
+        ps.setObject(11, user == null ? null : user.isActive(), Types.BOOLEAN);
+    }
+}
@@ -0,0 +1,425 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.repository;
+
+import com.example.usercrud.application.port.out.DuplicateUserKeyException;
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.JdbcTimestamps;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.UserChangeRowMapper;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.UserRowMapper;
+import com.example.usercrud.infrastructure.config.PersistenceConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Las sentencias son constantes para que el driver reutilice los prepared statements del servidor. Las de lectura
+// las comparte R2dbcUserRepositoryAdapter
+@Repository
+@Qualifier(PersistenceConfig.PERSISTENCE_ADAPTER)
+@Profile("!memory")
+public class JdbcUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private static final String SELECT_USERS = "SELECT " + UserRowMapper.COLUMNS + " FROM users";
+    // Todas las lecturas excluyen los usuarios borrados (deleted_at no nulo); los índices son parciales con el
+    // mismo predicado para que no crezcan con las filas pendientes de purgar
+    private static final String LIVE_USERS = SELECT_USERS + " WHERE deleted_at IS NULL";
+    
+    private static final String UPSERT =
+            "INSERT INTO users (" + UserRowMapper.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, email = EXCLUDED.email, " +
+            "first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name, " +
+            "updated_at = EXCLUDED.updated_at, active = EXCLUDED.active, version = users.version + 1 " +
+            "WHERE users.deleted_at IS NULL";
+    private static final String INSERT =
+            "INSERT INTO users (" + UserRowMapper.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_DETAILS =
+            "UPDATE users SET username = ?, email = ?, first_name = ?, last_name = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND deleted_at IS NULL RETURNING " + UserRowMapper.COLUMNS;
+    private static final String UPDATE_DETAILS_IF_VERSION =
+            "UPDATE users SET username = ?, email = ?, first_name = ?, last_name = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ? AND deleted_at IS NULL RETURNING " +
+            UserRowMapper.COLUMNS;
+    private static final String UPDATE_ACTIVE =
+            "UPDATE users SET active = ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND deleted_at IS NULL RETURNING " + UserRowMapper.COLUMNS;
+    static final String FIND_BY_ID = LIVE_USERS + " AND id = ?";
+    static final String FIND_BY_USERNAME = LIVE_USERS + " AND username = ?";
+    private static final String FIND_BY_EMAIL = LIVE_USERS + " AND email = ?";
+    private static final String EXISTS_BY_USERNAME =
+            "SELECT EXISTS (SELECT 1 FROM users WHERE username = ? AND deleted_at IS NULL)";
+    private static final String EXISTS_BY_EMAIL =
+            "SELECT EXISTS (SELECT 1 FROM users WHERE email = ? AND deleted_at IS NULL)";
+    static final String FIND_ALL = LIVE_USERS + " ORDER BY created_at, id";
+    static final String FIND_ALL_ACTIVE = LIVE_USERS + " AND active ORDER BY created_at, id";
+    static final String FIND_FIRST_PAGE = LIVE_USERS + " ORDER BY created_at, id LIMIT ?";
+    static final String FIND_FIRST_ACTIVE_PAGE = LIVE_USERS + " AND active ORDER BY created_at, id LIMIT ?";
+    static final String FIND_PAGE = LIVE_USERS +
+            " AND (created_at, id) > (?, ?) ORDER BY created_at, id LIMIT ?";
+    static final String FIND_ACTIVE_PAGE = LIVE_USERS +
+            " AND active AND (created_at, id) > (?, ?) ORDER BY created_at, id LIMIT ?";
+    // Documento de búsqueda difusa: debe coincidir con la expresión del índice GIN ix_users_live_search_trgm
+    static final String SEARCH_DOCUMENT =
+            "lower(username || ' ' || email || ' ' || first_name || ' ' || last_name)";
+    private static final String PREFIX_PREDICATE =
+            "(lower(username) LIKE ? OR lower(email) LIKE ? OR lower(first_name) LIKE ? OR lower(last_name) LIKE ?)";
+    // <% (word_similarity) usa el índice de trigramas; umbral pg_trgm.word_similarity_threshold (0.6 por defecto)
+    private static final String FUZZY_PREDICATE = "? <% " + SEARCH_DOCUMENT;
+    // [match][activo: null, true, false][con cursor]: SQL constante por combinación, filtro de activos como literal
+    // para que el planificador pueda usar el índice parcial
+    static final String[][][] SEARCH = buildSearchStatements();
+    // Borrado lógico en una sola sentencia: sin lectura previa y visible en el feed de cambios como una escritura más
+    private static final String SOFT_DELETE =
+            "UPDATE users SET deleted_at = ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND deleted_at IS NULL RETURNING " + UserRowMapper.COLUMNS;
+    // El feed incluye los borrados pendientes de purgar: son sus lápidas
+    private static final String SELECT_CHANGES = "SELECT " + UserChangeRowMapper.COLUMNS + " FROM users";
+    static final String FIND_FIRST_CHANGES = SELECT_CHANGES +
+            " WHERE updated_at < ? ORDER BY updated_at, id LIMIT ?";
+    static final String FIND_CHANGES = SELECT_CHANGES +
+            " WHERE (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+    // Cada lote es una transacción corta; SKIP LOCKED evita esperar a filas bloqueadas por otra instancia del job
+    private static final String PURGE_DELETED =
+            "DELETE FROM users WHERE id IN (SELECT id FROM users WHERE deleted_at < ? " +
+            "ORDER BY deleted_at LIMIT ? FOR UPDATE SKIP LOCKED)";
+    private static final String OLDEST_DELETED_AT =
+            "SELECT min(deleted_at) FROM users WHERE deleted_at IS NOT NULL";
+    // ANY(array) equivale a un IN (...) pero con un texto SQL constante, reutilizable por la caché de statements
+    private static final String FIND_BY_ID_OR_USERNAME_OR_EMAIL = LIVE_USERS +
+            " AND (id = ANY(?) OR username = ANY(?) OR email = ANY(?))";
+    private static final String UPDATE_DETAILS_BATCH =
+            "UPDATE users SET username = ?, email = ?, first_name = ?, last_name = ?, updated_at = ?, version = ? " +
+            "WHERE id = ? AND version = ? AND deleted_at IS NULL";
+    private static final String DEACTIVATE_ALL =
+            "UPDATE users SET active = FALSE, updated_at = ?, version = version + 1 " +
+            "WHERE id = ANY(?) AND deleted_at IS NULL RETURNING " + UserRowMapper.COLUMNS;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final int batchSize;
+    
+    public JdbcUserRepositoryAdapter(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            @Value("${app.persistence.stream-fetch-size:500}") int streamFetchSize,
+            @Value("${app.persistence.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        // Con fetchSize (y autocommit desactivado por la transacción) el driver usa un cursor de servidor
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+    }
+    
+    @Override
+    public User save(User user) {
+        jdbcTemplate.update(UPSERT,
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            JdbcTimestamps.toDb(user.getCreatedAt()),
+            JdbcTimestamps.toDb(user.getUpdatedAt()),
+            user.isActive(),
+            user.getVersion()
+        );
+        return user;
+    }
+    
+    @Override
+    public User insert(User user) {
+        try {
+            jdbcTemplate.update(INSERT,
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                JdbcTimestamps.toDb(user.getCreatedAt()),
+                JdbcTimestamps.toDb(user.getUpdatedAt()),
+                user.isActive(),
+                user.getVersion()
+            );
+        } catch (DuplicateKeyException ex) {
+            throw translateDuplicateKey(ex);
+        }
+        return user;
+    }
+    
+    @Override
+    public Optional<User> updateDetails(UUID id, Long expectedVersion, String username, String email,
+                                        String firstName, String lastName, Instant updatedAt) {
+        try {
+            List<User> users = expectedVersion == null
+                    ? jdbcTemplate.query(UPDATE_DETAILS, UserRowMapper.INSTANCE,
+                            username, email, firstName, lastName, JdbcTimestamps.toDb(updatedAt), id)
+                    : jdbcTemplate.query(UPDATE_DETAILS_IF_VERSION, UserRowMapper.INSTANCE,
+                            username, email, firstName, lastName, JdbcTimestamps.toDb(updatedAt), id, expectedVersion);
+            return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+        } catch (DuplicateKeyException ex) {
+            throw translateDuplicateKey(ex);
+        }
+    }
+    
+    @Override
+    public Optional<User> updateActive(UUID id, boolean active, Instant updatedAt) {
+        List<User> updated = jdbcTemplate.query(UPDATE_ACTIVE, UserRowMapper.INSTANCE,
+                active, JdbcTimestamps.toDb(updatedAt), id);
+        return updated.isEmpty() ? Optional.empty() : Optional.of(updated.get(0));
+    }
+    
+    @Override
+    public Optional<User> findById(UUID id) {
+        return findOne(FIND_BY_ID, id);
+    }
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findOne(FIND_BY_USERNAME, username);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findOne(FIND_BY_EMAIL, email);
+    }
+    
+    @Override
+    public boolean existsByUsername(String username) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_USERNAME, Boolean.class, username));
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_EMAIL, Boolean.class, email));
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return jdbcTemplate.query(FIND_ALL, UserRowMapper.INSTANCE);
+    }
+    
+    @Override
+    public List<User> findAllActive() {
+        return jdbcTemplate.query(FIND_ALL_ACTIVE, UserRowMapper.INSTANCE);
+    }
+    
+    @Override
+    public List<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        if (after == null) {
+            return jdbcTemplate.query(activeOnly ? FIND_FIRST_ACTIVE_PAGE : FIND_FIRST_PAGE,
+                    UserRowMapper.INSTANCE, limit);
+        }
+        return jdbcTemplate.query(activeOnly ? FIND_ACTIVE_PAGE : FIND_PAGE,
+                UserRowMapper.INSTANCE, JdbcTimestamps.toDb(after.getCreatedAt()), after.getId(), limit);
+    }
+    
+    @Override
+    public List<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        Boolean active = filter.getActive();
+        String sql = SEARCH[filter.getMatch().ordinal()][active == null ? 0 : active ? 1 : 2][after == null ? 0 : 1];
+        List<Object> args = new ArrayList<>(7);
+        if (filter.getMatch() == UserSearchFilter.Match.PREFIX) {
+            String pattern = escapeLike(query) + "%";
+            for (int i = 0; i < 4; i++) {
+                args.add(pattern);
+            }
+        } else {
+            args.add(query);
+        }
+        if (after != null) {
+            args.add(JdbcTimestamps.toDb(after.getCreatedAt()));
+            args.add(after.getId());
+        }
+        args.add(limit);
+        return jdbcTemplate.query(sql, UserRowMapper.INSTANCE, args.toArray());
+    }
+    
+    @Override
+    public void streamAll(boolean activeOnly, Consumer<User> consumer) {
+        streamingJdbcTemplate.query(activeOnly ? FIND_ALL_ACTIVE : FIND_ALL,
+                (RowCallbackHandler) rs -> consumer.accept(UserRowMapper.INSTANCE.mapRow(rs, 0)));
+    }
+    
+    @Override
+    public Optional<User> deleteById(UUID id, Instant deletedAt) {
+        return findOne(SOFT_DELETE, JdbcTimestamps.toDb(deletedAt), JdbcTimestamps.toDb(deletedAt), id);
+    }
+    
+    @Override
+    public List<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(FIND_FIRST_CHANGES, UserChangeRowMapper.INSTANCE,
+                    JdbcTimestamps.toDb(before), limit);
+        }
+        return jdbcTemplate.query(FIND_CHANGES, UserChangeRowMapper.INSTANCE,
+                JdbcTimestamps.toDb(after.getChangedAt()), after.getId(), JdbcTimestamps.toDb(before), limit);
+    }
+    
+    @Override
+    public int purgeDeleted(Instant deletedBefore, int limit) {
+        return jdbcTemplate.update(PURGE_DELETED, JdbcTimestamps.toDb(deletedBefore), limit);
+    }
+    
+    @Override
+    public Optional<Instant> findOldestDeletedAt() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(OLDEST_DELETED_AT,
+                (rs, rowNum) -> JdbcTimestamps.get(rs, 1)));
+    }
+    
+    private static String[][][] buildSearchStatements() {
+        String[] activeFilters = {"", " AND active", " AND NOT active"};
+        UserSearchFilter.Match[] matches = UserSearchFilter.Match.values();
+        String[][][] statements = new String[matches.length][activeFilters.length][2];
+        for (UserSearchFilter.Match match : matches) {
+            String predicate = match == UserSearchFilter.Match.PREFIX ? PREFIX_PREDICATE : FUZZY_PREDICATE;
+            for (int a = 0; a < activeFilters.length; a++) {
+                String where = LIVE_USERS + " AND " + predicate + activeFilters[a];
+                statements[match.ordinal()][a][0] = where + " ORDER BY created_at, id LIMIT ?";
+                statements[match.ordinal()][a][1] = where +
+                        " AND (created_at, id) > (?, ?) ORDER BY created_at, id LIMIT ?";
+            }
+        }
+        return statements;
+    }
+    
+    // La consulta es un prefijo literal: %, _ y \ no deben actuar como comodines
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private Optional<User> findOne(String sql, Object... args) {
+        List<User> users = jdbcTemplate.query(sql, UserRowMapper.INSTANCE, args);
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
+    
+    @Override
+    public List<User> findAllByIdOrUsernameOrEmail(Collection<UUID> ids, Collection<String> usernames,
+                                                   Collection<String> emails) {
+        return jdbcTemplate.query(FIND_BY_ID_OR_USERNAME_OR_EMAIL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", usernames.toArray()));
+            ps.setArray(3, connection.createArrayOf("varchar", emails.toArray()));
+        }, UserRowMapper.INSTANCE);
+    }
+    
+    @Override
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        withSavepoint(() -> jdbcTemplate.batchUpdate(INSERT, users, batchSize, (ps, user) -> {
+            ps.setObject(1, user.getId());
+            ps.setString(2, user.getUsername());
+            ps.setString(3, user.getEmail());
+            ps.setString(4, user.getFirstName());
+            ps.setString(5, user.getLastName());
+            ps.setObject(6, JdbcTimestamps.toDb(user.getCreatedAt()));
+            ps.setObject(7, JdbcTimestamps.toDb(user.getUpdatedAt()));
+            ps.setBoolean(8, user.isActive());
+            ps.setLong(9, user.getVersion());
+        }));
+    }
+    
+    @Override
+    public Set<UUID> updateAllDetails(List<User> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+        int[][] counts = withSavepoint(() -> jdbcTemplate.batchUpdate(UPDATE_DETAILS_BATCH, users, batchSize,
+                (ps, user) -> {
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getEmail());
+                    ps.setString(3, user.getFirstName());
+                    ps.setString(4, user.getLastName());
+                    ps.setObject(5, JdbcTimestamps.toDb(user.getUpdatedAt()));
+                    ps.setLong(6, user.getVersion());
+                    ps.setObject(7, user.getId());
+                    ps.setLong(8, user.getVersion() - 1);
+                }));
+        Set<UUID> updated = new HashSet<>(users.size() * 2);
+        int position = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    updated.add(users.get(position).getId());
+                }
+                position++;
+            }
+        }
+        return updated;
+    }
+    
+    @Override
+    public List<User> deactivateAll(Collection<UUID> ids, Instant updatedAt) {
+        List<User> deactivated = new ArrayList<>(ids.size());
+        List<UUID> pending = List.copyOf(ids);
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            Object[] chunk = pending.subList(from, Math.min(from + batchSize, pending.size())).toArray();
+            deactivated.addAll(jdbcTemplate.query(DEACTIVATE_ALL, ps -> {
+                ps.setObject(1, JdbcTimestamps.toDb(updatedAt));
+                ps.setArray(2, ps.getConnection().createArrayOf("uuid", chunk));
+            }, UserRowMapper.INSTANCE));
+        }
+        return deactivated;
+    }
+    
+    // PostgreSQL aborta la transacción entera tras una violación de unicidad. El lote se escribe tras un savepoint y,
+    // si choca, se deshace solo el lote: la transacción sigue viva para que UserService vuelva a comprobar las claves
+    // y reintente con el resto. Sin transacción no hay nada que conservar
+    private <T> T withSavepoint(Supplier<T> write) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return write.get();
+            } catch (DuplicateKeyException ex) {
+                throw translateDuplicateKey(ex);
+            }
+        }
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            T result;
+            try {
+                result = write.get();
+            } catch (DuplicateKeyException ex) {
+                connection.rollback(savepoint);
+                throw translateDuplicateKey(ex);
+            }
+            connection.releaseSavepoint(savepoint);
+            return result;
+        });
+    }
+    
+    // Identifica la columna a partir del índice violado o del detalle "Key (columna)=(...)" de PostgreSQL
+    private RuntimeException translateDuplicateKey(DuplicateKeyException ex) {
+        String message = String.valueOf(ex.getMostSpecificCause().getMessage());
+        if (message.contains("ux_users_live_username") || message.contains("(username)")) {
+            return new DuplicateUserKeyException(DuplicateUserKeyException.Key.USERNAME, ex);
+        }
+        if (message.contains("ux_users_live_email") || message.contains("(email)")) {
+            return new DuplicateUserKeyException(DuplicateUserKeyException.Key.EMAIL, ex);
+        }
+        return ex;
+    }
+}
\ No newline at end of file
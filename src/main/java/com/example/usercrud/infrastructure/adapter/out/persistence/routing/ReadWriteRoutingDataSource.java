@@ -0,0 +1,55 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.Map;
+
+// Envía las transacciones readOnly a la réplica y el resto al primario. Debe usarse detrás de un
+// LazyConnectionDataSourceProxy: así la conexión física se pide en la primera sentencia, cuando el flag readOnly
+// de la transacción ya está publicado (el gestor de transacciones pide la conexión antes de publicarlo)
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+    
+    private final Counter readWrite;
+    private final Counter readYourWrites;
+    private final Counter replicaReads;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readWrite = routingCounter(meterRegistry, Target.PRIMARY, "read_write");
+        this.readYourWrites = routingCounter(meterRegistry, Target.PRIMARY, "read_your_writes");
+        this.replicaReads = routingCounter(meterRegistry, Target.REPLICA, "read");
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrite.increment();
+            return Target.PRIMARY;
+        }
+        if (ReadYourWritesContext.isPrimaryRequired()) {
+            readYourWrites.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+    
+    private static Counter routingCounter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("user.datasource.routing")
+                .description("Physical connections obtained per target pool")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
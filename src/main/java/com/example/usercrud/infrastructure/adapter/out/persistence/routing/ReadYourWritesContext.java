@@ -0,0 +1,23 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.routing;
+
+// Marca por hilo para que las lecturas de una sesión que acaba de escribir vayan al primario (la réplica puede
+// no haber aplicado todavía esa escritura). La fija el adaptador de entrada y la consulta el enrutado
+public final class ReadYourWritesContext {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    
+    private ReadYourWritesContext() {
+    }
+    
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+    
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+    
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
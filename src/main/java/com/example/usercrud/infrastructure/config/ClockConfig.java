@@ -0,0 +1,16 @@
+package com.example.usercrud.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+// Reloj de la aplicación; sustituible (p. ej. Clock.fixed) en benchmarks o entornos de prueba
+@Configuration
+public class ClockConfig {
+    
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.infrastructure.adapter.out.persistence.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Limitador de conexiones (app.persistence.concurrency-limit, activo en el perfil virtual-threads): envuelve el
+// DataSource que usan JdbcTemplate y el gestor de transacciones, sea el autoconfigurado o el de la réplica
+@Configuration
+@ConditionalOnProperty(name = "app.persistence.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+    
+    private static final String DATA_SOURCE = "dataSource";
+    
+    // static: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.persistence.concurrency-limit.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.persistence.concurrency-limit.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, acquireTimeout,
+                            meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.usercrud.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+// Sin DataSource no hay transacciones reales; este gestor solo mantiene la sincronización (afterCommit)
+@Configuration
+@Profile("memory")
+public class InMemoryPersistenceConfig {
+    
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+            
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+            
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+            
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
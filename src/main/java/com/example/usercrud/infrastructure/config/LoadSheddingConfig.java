@@ -0,0 +1,56 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.infrastructure.adapter.in.web.filter.ClientRateLimiter;
+import com.example.usercrud.infrastructure.adapter.in.web.filter.EndpointCosts;
+import com.example.usercrud.infrastructure.adapter.in.web.filter.GradientConcurrencyLimiter;
+import com.example.usercrud.infrastructure.adapter.in.web.filter.LoadSheddingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Desactivado por defecto: los límites dependen del despliegue (réplicas, balanceador, cómo se identifica al cliente)
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.load-shedding.enabled", havingValue = "true")
+public class LoadSheddingConfig {
+    
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.load-shedding.rate.stripes:4096}") int stripes,
+            @Value("${app.load-shedding.rate.tokens-per-second:50}") double tokensPerSecond,
+            @Value("${app.load-shedding.rate.burst:100}") int burst,
+            @Value("${app.load-shedding.rate.client-header:}") String clientHeader,
+            @Value("${app.load-shedding.cost.list:10}") int listCost,
+            @Value("${app.load-shedding.cost.export:50}") int exportCost,
+            @Value("${app.load-shedding.cost.search:5}") int searchCost,
+            @Value("${app.load-shedding.cost.changes:10}") int changesCost,
+            @Value("${app.load-shedding.cost.batch:20}") int batchCost,
+            @Value("${app.load-shedding.cost.single:1}") int singleCost,
+            @Value("${app.load-shedding.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${app.load-shedding.concurrency.min-limit:5}") int minLimit,
+            @Value("${app.load-shedding.concurrency.max-limit:200}") int maxLimit,
+            @Value("${app.load-shedding.concurrency.window:1s}") Duration window) {
+        LoadSheddingFilter filter = new LoadSheddingFilter(
+                new ClientRateLimiter(stripes, tokensPerSecond, burst),
+                new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, window.toNanos()),
+                new EndpointCosts(listCost, exportCost, searchCost, changesCost, batchCost, singleCost),
+                clientHeader,
+                objectMapper,
+                meterRegistry);
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/users", "/api/users/*");
+        // Detrás del filtro de observación HTTP, para que los 429/503 cuenten en http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
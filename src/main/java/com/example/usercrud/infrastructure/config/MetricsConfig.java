@@ -0,0 +1,20 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.application.port.in.UserServicePort;
+import com.example.usercrud.application.service.UserService;
+import com.example.usercrud.infrastructure.metrics.TimedUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Compone el UserServicePort que usan los adaptadores de entrada: el servicio transaccional medido por operación
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    @Primary
+    public UserServicePort userServicePort(UserService userService, MeterRegistry meterRegistry) {
+        return new TimedUserService(userService, meterRegistry);
+    }
+}
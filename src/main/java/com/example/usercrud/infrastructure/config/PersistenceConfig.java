@@ -0,0 +1,35 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.infrastructure.adapter.out.persistence.SingleFlightUserRepositoryAdapter;
+import com.example.usercrud.infrastructure.metrics.TimedUserRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+// Compone el UserRepositoryPort que usa la aplicación a partir del adaptador de persistencia activo
+@Configuration
+public class PersistenceConfig {
+    
+    public static final String PERSISTENCE_ADAPTER = "persistenceAdapter";
+    
+    @Bean
+    @Primary
+    public UserRepositoryPort userRepositoryPort(
+            @Qualifier(PERSISTENCE_ADAPTER) UserRepositoryPort adapter,
+            MeterRegistry meterRegistry,
+            @Value("${app.persistence.single-flight.enabled:true}") boolean singleFlightEnabled,
+            @Value("${app.persistence.single-flight.max-wait:2s}") Duration singleFlightMaxWait) {
+        UserRepositoryPort port = new TimedUserRepositoryAdapter(adapter, meterRegistry);
+        // Por fuera de todo: quien espera una consulta compartida no ocupa conexión
+        if (singleFlightEnabled) {
+            port = new SingleFlightUserRepositoryAdapter(port, singleFlightMaxWait, meterRegistry);
+        }
+        return port;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.domain.UserEvent;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchCreateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchDeactivateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchItemResultDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.CreateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UpdateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserChangeDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserChangePageDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserPageDto;
+import com.example.usercrud.infrastructure.adapter.in.web.exception.GlobalExceptionHandler;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Tipos que Jackson lee o escribe por reflexión en la imagen nativa (perfil Maven native). El procesado AOT infiere
+// los de las firmas de los controladores, pero no los que se serializan a mano: ErrorResponse en
+// LoadSheddingFilter y UserEvent en los publicadores de eventos. Se declaran todos para no depender de esa inferencia
+@Configuration
+@ImportRuntimeHints(RuntimeHintsConfig.JacksonBindingHints.class)
+public class RuntimeHintsConfig {
+    
+    static class JacksonBindingHints implements RuntimeHintsRegistrar {
+        
+        private static final Class<?>[] TYPES = {
+            CreateUserDto.class,
+            UpdateUserDto.class,
+            BatchCreateUsersDto.class,
+            BatchUpdateUserDto.class,
+            BatchUpdateUsersDto.class,
+            BatchDeactivateUsersDto.class,
+            BatchItemResultDto.class,
+            UserPageDto.class,
+            UserChangeDto.class,
+            UserChangePageDto.class,
+            GlobalExceptionHandler.ErrorResponse.class,
+            GlobalExceptionHandler.ValidationErrorResponse.class,
+            UserEvent.class
+        };
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), TYPES);
+        }
+    }
+}
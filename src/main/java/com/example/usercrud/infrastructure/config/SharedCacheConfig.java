@@ -0,0 +1,49 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.infrastructure.adapter.out.cache.CaffeineUserCacheAdapter;
+import com.example.usercrud.infrastructure.adapter.out.cache.InMemorySharedUserCacheStore;
+import com.example.usercrud.infrastructure.adapter.out.cache.SharedUserCacheStore;
+import com.example.usercrud.infrastructure.adapter.out.cache.TwoLevelUserCacheAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+// Caché de dos niveles (app.cache.shared.enabled): la Caffeine de siempre como near-cache y el almacén compartido de
+// app.cache.shared.store. El almacén de Redis está en RedisSharedCacheConfig (perfil Maven redis)
+@Configuration
+@ConditionalOnProperty(name = "app.cache.shared.enabled", havingValue = "true")
+public class SharedCacheConfig {
+    
+    @Bean
+    @Primary
+    public UserCachePort twoLevelUserCache(CaffeineUserCacheAdapter near, SharedUserCacheStore shared,
+                                           MeterRegistry meterRegistry) {
+        return new TwoLevelUserCacheAdapter(near, shared, meterRegistry);
+    }
+    
+    // Sin el perfil Maven redis no hay Lettuce ni RedisSharedCacheConfig: mejor un error claro al arrancar que un
+    // "falta un bean SharedUserCacheStore"
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "redis", matchIfMissing = true)
+    @ConditionalOnMissingClass("io.lettuce.core.RedisClient")
+    public SharedUserCacheStore redisSharedUserCacheStoreUnavailable() {
+        throw new IllegalStateException("app.cache.shared.store=redis requires a build with the Maven profile "
+                + "'redis' (mvn -Predis package); use app.cache.shared.store=in-memory otherwise");
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "in-memory")
+    public SharedUserCacheStore inMemorySharedUserCacheStore(
+            @Value("${app.cache.maximum-size:100000}") long maximumSize,
+            @Value("${app.cache.shared.ttl:10m}") Duration ttl,
+            @Value("${app.cache.tombstone-ttl:10s}") Duration tombstoneTtl) {
+        return new InMemorySharedUserCacheStore(maximumSize, ttl, tombstoneTtl);
+    }
+}
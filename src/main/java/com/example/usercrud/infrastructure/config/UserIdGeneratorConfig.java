@@ -0,0 +1,28 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.domain.RandomUserIdGenerator;
+import com.example.usercrud.domain.TimeOrderedUserIdGenerator;
+import com.example.usercrud.domain.UserIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+// Solo afecta a los usuarios nuevos: los ids ya existentes (UUIDv4) se conservan y conviven con los v7, ya que
+// ninguna consulta deduce nada del valor del id
+@Configuration
+public class UserIdGeneratorConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.users.id-generator", havingValue = "v7", matchIfMissing = true)
+    public UserIdGenerator timeOrderedUserIdGenerator(Clock clock) {
+        return new TimeOrderedUserIdGenerator(clock);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.users.id-generator", havingValue = "v4")
+    public UserIdGenerator randomUserIdGenerator() {
+        return new RandomUserIdGenerator();
+    }
+}
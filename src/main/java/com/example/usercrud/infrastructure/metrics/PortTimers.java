@@ -0,0 +1,119 @@
+package com.example.usercrud.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Timers con histograma de percentiles por operación y resultado de un puerto. Los Timer se resuelven una sola
+// vez por (operación, resultado) para no buscar en el registro en cada llamada del camino caliente
+public class PortTimers {
+    
+    public enum Outcome {
+        FOUND("found"),
+        NOT_FOUND("not_found"),
+        SUCCESS("success"),
+        CONFLICT("conflict"),
+        ERROR("error");
+        
+        private final String tag;
+        
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+        
+        public String getTag() {
+            return tag;
+        }
+    }
+    
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    
+    private final MeterRegistry meterRegistry;
+    private final String metricName;
+    private final String description;
+    private final Function<RuntimeException, Outcome> failureOutcome;
+    
+    public PortTimers(MeterRegistry meterRegistry, String metricName, String description,
+                      Function<RuntimeException, Outcome> failureOutcome) {
+        this.meterRegistry = meterRegistry;
+        this.metricName = metricName;
+        this.description = description;
+        this.failureOutcome = failureOutcome;
+    }
+    
+    public Operation operation(String name) {
+        return new Operation(name);
+    }
+    
+    public class Operation {
+        
+        private final String name;
+        // Creación perezosa: solo se publican las series de los resultados que llegan a producirse
+        private final Timer[] timers = new Timer[OUTCOMES.length];
+        
+        private Operation(String name) {
+            this.name = name;
+        }
+        
+        // Optional vacío -> not_found, presente -> found; cualquier otro resultado -> success
+        public <T> T record(Supplier<T> call) {
+            return record(call, PortTimers::outcomeOf);
+        }
+        
+        public <T> T record(Supplier<T> call, Function<? super T, Outcome> outcome) {
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = call.get();
+            } catch (RuntimeException ex) {
+                stop(failureOutcome.apply(ex), start);
+                throw ex;
+            } catch (Error err) {
+                stop(Outcome.ERROR, start);
+                throw err;
+            }
+            stop(outcome.apply(result), start);
+            return result;
+        }
+        
+        public void run(Runnable call) {
+            record(() -> {
+                call.run();
+                return null;
+            });
+        }
+        
+        private void stop(Outcome outcome, long start) {
+            timer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        private Timer timer(Outcome outcome) {
+            Timer timer = timers[outcome.ordinal()];
+            if (timer == null) {
+                // Carrera benigna: el registro devuelve siempre el mismo Timer para el mismo nombre y tags
+                timer = Timer.builder(metricName)
+                        .description(description)
+                        .tag("operation", name)
+                        .tag("outcome", outcome.getTag())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(1_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry);
+                timers[outcome.ordinal()] = timer;
+            }
+            return timer;
+        }
+    }
+    
+    private static Outcome outcomeOf(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? Outcome.FOUND : Outcome.NOT_FOUND;
+        }
+        return Outcome.SUCCESS;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.usercrud.infrastructure.metrics;
+
+import com.example.usercrud.application.port.out.DuplicateUserKeyException;
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.metrics.PortTimers.Operation;
+import com.example.usercrud.infrastructure.metrics.PortTimers.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Mide cada llamada al adaptador de persistencia (consulta + espera de conexión del pool) en user.repository
+public class TimedUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private final UserRepositoryPort delegate;
+    private final Operation save;
+    private final Operation insert;
+    private final Operation updateDetails;
+    private final Operation updateActive;
+    private final Operation findById;
+    private final Operation findByUsername;
+    private final Operation findByEmail;
+    private final Operation existsByUsername;
+    private final Operation existsByEmail;
+    private final Operation findAll;
+    private final Operation findAllActive;
+    private final Operation findPage;
+    private final Operation searchUsers;
+    private final Operation streamAll;
+    private final Operation deleteById;
+    private final Operation findChanges;
+    private final Operation purgeDeleted;
+    private final Operation findOldestDeletedAt;
+    private final Operation findAllByIdOrUsernameOrEmail;
+    private final Operation insertAll;
+    private final Operation updateAllDetails;
+    private final Operation deactivateAll;
+    
+    public TimedUserRepositoryAdapter(UserRepositoryPort delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        PortTimers timers = new PortTimers(meterRegistry, "user.repository",
+                "Latency of UserRepositoryPort calls", TimedUserRepositoryAdapter::failureOutcome);
+        this.save = timers.operation("save");
+        this.insert = timers.operation("insert");
+        this.updateDetails = timers.operation("updateDetails");
+        this.updateActive = timers.operation("updateActive");
+        this.findById = timers.operation("findById");
+        this.findByUsername = timers.operation("findByUsername");
+        this.findByEmail = timers.operation("findByEmail");
+        this.existsByUsername = timers.operation("existsByUsername");
+        this.existsByEmail = timers.operation("existsByEmail");
+        this.findAll = timers.operation("findAll");
+        this.findAllActive = timers.operation("findAllActive");
+        this.findPage = timers.operation("findPage");
+        this.searchUsers = timers.operation("searchUsers");
+        this.streamAll = timers.operation("streamAll");
+        this.deleteById = timers.operation("deleteById");
+        this.findChanges = timers.operation("findChanges");
+        this.purgeDeleted = timers.operation("purgeDeleted");
+        this.findOldestDeletedAt = timers.operation("findOldestDeletedAt");
+        this.findAllByIdOrUsernameOrEmail = timers.operation("findAllByIdOrUsernameOrEmail");
+        this.insertAll = timers.operation("insertAll");
+        this.updateAllDetails = timers.operation("updateAllDetails");
+        this.deactivateAll = timers.operation("deactivateAll");
+    }
+    
+    @Override
+    public User save(User user) {
+        return save.record(() -> delegate.save(user));
+    }
+    
+    @Override
+    public User insert(User user) {
+        return insert.record(() -> delegate.insert(user));
+    }
+    
+    @Override
+    public Optional<User> updateDetails(UUID id, Long expectedVersion, String username, String email,
+                                        String firstName, String lastName, Instant updatedAt) {
+        return updateDetails.record(() -> delegate.updateDetails(id, expectedVersion, username, email, firstName,
+                lastName, updatedAt));
+    }
+    
+    @Override
+    public Optional<User> updateActive(UUID id, boolean active, Instant updatedAt) {
+        return updateActive.record(() -> delegate.updateActive(id, active, updatedAt));
+    }
+    
+    @Override
+    public Optional<User> findById(UUID id) {
+        return findById.record(() -> delegate.findById(id));
+    }
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findByUsername.record(() -> delegate.findByUsername(username));
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findByEmail.record(() -> delegate.findByEmail(email));
+    }
+    
+    @Override
+    public boolean existsByUsername(String username) {
+        return existsByUsername.record(() -> delegate.existsByUsername(username), TimedUserRepositoryAdapter::found);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return existsByEmail.record(() -> delegate.existsByEmail(email), TimedUserRepositoryAdapter::found);
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return findAll.record(delegate::findAll);
+    }
+    
+    @Override
+    public List<User> findAllActive() {
+        return findAllActive.record(delegate::findAllActive);
+    }
+    
+    @Override
+    public List<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        return findPage.record(() -> delegate.findPage(after, limit, activeOnly));
+    }
+    
+    @Override
+    public List<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        return searchUsers.record(() -> delegate.searchUsers(query, filter, after, limit));
+    }
+    
+    @Override
+    public void streamAll(boolean activeOnly, Consumer<User> consumer) {
+        // Incluye el tiempo del consumer (escritura de la respuesta): es la duración completa del cursor abierto
+        streamAll.run(() -> delegate.streamAll(activeOnly, consumer));
+    }
+    
+    @Override
+    public Optional<User> deleteById(UUID id, Instant deletedAt) {
+        return deleteById.record(() -> delegate.deleteById(id, deletedAt));
+    }
+    
+    @Override
+    public List<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        return findChanges.record(() -> delegate.findChanges(after, before, limit));
+    }
+    
+    @Override
+    public int purgeDeleted(Instant deletedBefore, int limit) {
+        return purgeDeleted.record(() -> delegate.purgeDeleted(deletedBefore, limit));
+    }
+    
+    @Override
+    public Optional<Instant> findOldestDeletedAt() {
+        return findOldestDeletedAt.record(delegate::findOldestDeletedAt);
+    }
+    
+    @Override
+    public List<User> findAllByIdOrUsernameOrEmail(Collection<UUID> ids, Collection<String> usernames,
+                                                   Collection<String> emails) {
+        return findAllByIdOrUsernameOrEmail.record(() -> delegate.findAllByIdOrUsernameOrEmail(ids, usernames,
+                emails));
+    }
+    
+    @Override
+    public void insertAll(List<User> users) {
+        insertAll.run(() -> delegate.insertAll(users));
+    }
+    
+    @Override
+    public Set<UUID> updateAllDetails(List<User> users) {
+        return updateAllDetails.record(() -> delegate.updateAllDetails(users));
+    }
+    
+    @Override
+    public List<User> deactivateAll(Collection<UUID> ids, Instant updatedAt) {
+        return deactivateAll.record(() -> delegate.deactivateAll(ids, updatedAt));
+    }
+    
+    private static Outcome found(boolean result) {
+        return result ? Outcome.FOUND : Outcome.NOT_FOUND;
+    }
+    
+    private static Outcome failureOutcome(RuntimeException ex) {
+        if (ex instanceof DuplicateUserKeyException || ex instanceof ConcurrencyFailureException) {
+            return Outcome.CONFLICT;
+        }
+        return Outcome.ERROR;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.usercrud.infrastructure.metrics;
+
+import com.example.usercrud.application.port.in.BatchItemResult;
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
+import com.example.usercrud.application.port.in.UserServicePort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.domain.exception.DuplicateUserException;
+import com.example.usercrud.domain.exception.UserConcurrentModificationException;
+import com.example.usercrud.domain.exception.UserNotFoundException;
+import com.example.usercrud.infrastructure.metrics.PortTimers.Operation;
+import com.example.usercrud.infrastructure.metrics.PortTimers.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Mide cada caso de uso en user.service (caché + transacción + repositorio, sin la serialización HTTP)
+public class TimedUserService implements UserServicePort {
+    
+    private final UserServicePort delegate;
+    private final Operation createUser;
+    private final Operation updateUser;
+    private final Operation getUserById;
+    private final Operation getUserByUsername;
+    private final Operation getAllUsers;
+    private final Operation getAllActiveUsers;
+    private final Operation getUsers;
+    private final Operation searchUsers;
+    private final Operation streamUsers;
+    private final Operation getChanges;
+    private final Operation deactivateUser;
+    private final Operation activateUser;
+    private final Operation deleteUser;
+    private final Operation createUsers;
+    private final Operation updateUsers;
+    private final Operation deactivateUsers;
+    
+    public TimedUserService(UserServicePort delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        PortTimers timers = new PortTimers(meterRegistry, "user.service", "Latency of UserServicePort calls",
+                TimedUserService::failureOutcome);
+        this.createUser = timers.operation("createUser");
+        this.updateUser = timers.operation("updateUser");
+        this.getUserById = timers.operation("getUserById");
+        this.getUserByUsername = timers.operation("getUserByUsername");
+        this.getAllUsers = timers.operation("getAllUsers");
+        this.getAllActiveUsers = timers.operation("getAllActiveUsers");
+        this.getUsers = timers.operation("getUsers");
+        this.searchUsers = timers.operation("searchUsers");
+        this.streamUsers = timers.operation("streamUsers");
+        this.getChanges = timers.operation("getChanges");
+        this.deactivateUser = timers.operation("deactivateUser");
+        this.activateUser = timers.operation("activateUser");
+        this.deleteUser = timers.operation("deleteUser");
+        this.createUsers = timers.operation("createUsers");
+        this.updateUsers = timers.operation("updateUsers");
+        this.deactivateUsers = timers.operation("deactivateUsers");
+    }
+    
+    @Override
+    public User createUser(String username, String email, String firstName, String lastName) {
+        return createUser.record(() -> delegate.createUser(username, email, firstName, lastName));
+    }
+    
+    @Override
+    public User updateUser(UUID id, String username, String email, String firstName, String lastName) {
+        return updateUser.record(() -> delegate.updateUser(id, username, email, firstName, lastName));
+    }
+    
+    @Override
+    public User updateUser(UUID id, long expectedVersion, String username, String email, String firstName,
+                           String lastName) {
+        return updateUser.record(() -> delegate.updateUser(id, expectedVersion, username, email, firstName,
+                lastName));
+    }
+    
+    @Override
+    public User getUserById(UUID id) {
+        return getUserById.record(() -> delegate.getUserById(id), TimedUserService::found);
+    }
+    
+    @Override
+    public User getUserByUsername(String username) {
+        return getUserByUsername.record(() -> delegate.getUserByUsername(username), TimedUserService::found);
+    }
+    
+    @Override
+    public List<User> getAllUsers() {
+        return getAllUsers.record(delegate::getAllUsers);
+    }
+    
+    @Override
+    public List<User> getAllActiveUsers() {
+        return getAllActiveUsers.record(delegate::getAllActiveUsers);
+    }
+    
+    @Override
+    public UserPage getUsers(UserCursor after, int limit, boolean activeOnly) {
+        return getUsers.record(() -> delegate.getUsers(after, limit, activeOnly));
+    }
+    
+    @Override
+    public UserPage searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        return searchUsers.record(() -> delegate.searchUsers(query, filter, after, limit));
+    }
+    
+    @Override
+    public void streamUsers(boolean activeOnly, Consumer<User> consumer) {
+        streamUsers.run(() -> delegate.streamUsers(activeOnly, consumer));
+    }
+    
+    @Override
+    public UserChangePage getChanges(UserChangeCursor since, int limit) {
+        return getChanges.record(() -> delegate.getChanges(since, limit));
+    }
+    
+    @Override
+    public void deactivateUser(UUID id) {
+        deactivateUser.run(() -> delegate.deactivateUser(id));
+    }
+    
+    @Override
+    public void activateUser(UUID id) {
+        activateUser.run(() -> delegate.activateUser(id));
+    }
+    
+    @Override
+    public void deleteUser(UUID id) {
+        deleteUser.run(() -> delegate.deleteUser(id));
+    }
+    
+    @Override
+    public List<BatchItemResult> createUsers(List<CreateUserCommand> commands) {
+        return createUsers.record(() -> delegate.createUsers(commands));
+    }
+    
+    @Override
+    public List<BatchItemResult> updateUsers(List<UpdateUserCommand> commands) {
+        return updateUsers.record(() -> delegate.updateUsers(commands));
+    }
+    
+    @Override
+    public List<BatchItemResult> deactivateUsers(Collection<UUID> ids) {
+        return deactivateUsers.record(() -> delegate.deactivateUsers(ids));
+    }
+    
+    private static Outcome found(User user) {
+        return Outcome.FOUND;
+    }
+    
+    private static Outcome failureOutcome(RuntimeException ex) {
+        if (ex instanceof UserNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (ex instanceof DuplicateUserException || ex instanceof UserConcurrentModificationException) {
+            return Outcome.CONFLICT;
+        }
+        return Outcome.ERROR;
+    }
+}
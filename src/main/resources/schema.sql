@@ -0,0 +1,102 @@
+-- Esquema gestionado por spring.sql.init (idempotente: se ejecuta en cada arranque)
+CREATE TABLE IF NOT EXISTS users (
+    id          UUID         PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    first_name  VARCHAR(50)  NOT NULL,
+    last_name   VARCHAR(50)  NOT NULL,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP    NOT NULL,
+    active      BOOLEAN      NOT NULL DEFAULT TRUE,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    deleted_at  TIMESTAMP
+);
+
+-- Bloqueo optimista (tablas creadas antes de existir la columna)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Borrado lógico: las filas con deleted_at son lápidas para el feed de cambios hasta que DeletedUserPurgeJob
+-- las elimina. Todos los índices de lectura son parciales (WHERE deleted_at IS NULL): las lecturas los usan
+-- igual que antes y las lápidas no ocupan espacio en ellos
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- Búsquedas exactas y existsBy*: índices únicos (index-only scan para los exists). Un username o email queda
+-- libre en cuanto se borra el usuario
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_live_username ON users (username) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_live_email ON users (email) WHERE deleted_at IS NULL;
+
+-- Paginación por keyset (created_at, id) y listado de activos sin ordenar en memoria
+CREATE INDEX IF NOT EXISTS ix_users_live_created_at_id ON users (created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_users_live_active_created_at_id ON users (created_at, id)
+    WHERE active AND deleted_at IS NULL;
+
+-- Feed de cambios (GET /api/users/changes): keyset sobre (updated_at, id), incluidas las lápidas
+CREATE INDEX IF NOT EXISTS ix_users_updated_at_id ON users (updated_at, id);
+
+-- Purga de lápidas por antigüedad
+CREATE INDEX IF NOT EXISTS ix_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Búsqueda por prefijo (LIKE 'texto%') sobre cada campo, sin distinguir mayúsculas
+CREATE INDEX IF NOT EXISTS ix_users_live_username_prefix ON users (lower(username) text_pattern_ops)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_users_live_email_prefix ON users (lower(email) text_pattern_ops)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_users_live_first_name_prefix ON users (lower(first_name) text_pattern_ops)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_users_live_last_name_prefix ON users (lower(last_name) text_pattern_ops)
+    WHERE deleted_at IS NULL;
+
+-- Búsqueda difusa por trigramas (operador <%) sobre el documento username + email + nombre + apellido.
+-- La expresión debe coincidir con JdbcUserRepositoryAdapter.SEARCH_DOCUMENT
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS ix_users_live_search_trgm ON users
+    USING gin (lower(username || ' ' || email || ' ' || first_name || ' ' || last_name) gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+
+-- Índices completos anteriores al borrado lógico, sustituidos por los parciales (se crean antes de borrar estos
+-- para no dejar las claves sin restricción de unicidad)
+DROP INDEX IF EXISTS ux_users_username;
+DROP INDEX IF EXISTS ux_users_email;
+DROP INDEX IF EXISTS ix_users_created_at_id;
+DROP INDEX IF EXISTS ix_users_active_created_at_id;
+DROP INDEX IF EXISTS ix_users_username_prefix;
+DROP INDEX IF EXISTS ix_users_email_prefix;
+DROP INDEX IF EXISTS ix_users_first_name_prefix;
+DROP INDEX IF EXISTS ix_users_last_name_prefix;
+DROP INDEX IF EXISTS ix_users_search_trgm;
+
+-- Las lápidas de los borrados físicos anteriores (tabla user_tombstones) pasan a ser filas con deleted_at: el feed
+-- las sigue sirviendo en el mismo orden (updated_at = fecha de borrado) y DeletedUserPurgeJob las elimina al cumplir
+-- la retención. El feed de un borrado solo usa id, versión y fecha, así que el resto de columnas quedan vacías.
+-- El CREATE solo existe para que el INSERT no falle en una base de datos nueva, donde la tabla nunca existió
+CREATE TABLE IF NOT EXISTS user_tombstones (
+    id          UUID       PRIMARY KEY,
+    deleted_at  TIMESTAMP  NOT NULL,
+    version     BIGINT     NOT NULL
+);
+INSERT INTO users (id, username, email, first_name, last_name, created_at, updated_at, active, version, deleted_at)
+    SELECT id, '', '', '', '', deleted_at, deleted_at, FALSE, version, deleted_at FROM user_tombstones
+    ON CONFLICT (id) DO NOTHING;
+DROP TABLE IF EXISTS user_tombstones;
+
+-- Outbox transaccional de eventos de usuario: se escribe en la transacción de cada modificación y lo vacía
+-- por lotes UserEventOutboxRelay (orden por id). Las columnas del usuario son nulas en los eventos DELETED.
+-- claimed_until: fin de la reserva del relay que lo está publicando (NULL si nadie lo ha reservado)
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id            BIGSERIAL    PRIMARY KEY,
+    event_type    VARCHAR(20)  NOT NULL,
+    user_id       UUID         NOT NULL,
+    user_version  BIGINT       NOT NULL,
+    occurred_at   TIMESTAMP    NOT NULL,
+    username      VARCHAR(50),
+    email         VARCHAR(100),
+    first_name    VARCHAR(50),
+    last_name     VARCHAR(50),
+    created_at    TIMESTAMP,
+    updated_at    TIMESTAMP,
+    active        BOOLEAN,
+    claimed_until TIMESTAMP
+);
+
+-- Reserva de eventos por relay (tablas creadas antes de existir la columna)
+ALTER TABLE user_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
@@ -0,0 +1,35 @@
+package com.example.usercrud.application.port.in;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Mismos casos de uso que UserServicePort para la pila reactiva (perfil reactive). Los listados completos son Flux:
+// se emiten según llegan de la BD y al ritmo que pide el cliente
+public interface ReactiveUserServicePort {
+    Mono<User> createUser(String username, String email, String firstName, String lastName);
+    Mono<User> updateUser(UUID id, String username, String email, String firstName, String lastName);
+    Mono<User> updateUser(UUID id, long expectedVersion, String username, String email, String firstName,
+                          String lastName);
+    Mono<User> getUserById(UUID id);
+    Mono<User> getUserByUsername(String username);
+    Mono<UserPage> getUsers(UserCursor after, int limit, boolean activeOnly);
+    Mono<UserPage> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit);
+    Flux<User> streamUsers(boolean activeOnly);
+    Mono<UserChangePage> getChanges(UserChangeCursor since, int limit);
+    Mono<Void> deactivateUser(UUID id);
+    Mono<Void> activateUser(UUID id);
+    Mono<Void> deleteUser(UUID id);
+    Mono<List<BatchItemResult>> createUsers(List<CreateUserCommand> commands);
+    Mono<List<BatchItemResult>> updateUsers(List<UpdateUserCommand> commands);
+    Mono<List<BatchItemResult>> deactivateUsers(Collection<UUID> ids);
+}
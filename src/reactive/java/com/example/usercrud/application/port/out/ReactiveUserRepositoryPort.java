@@ -0,0 +1,24 @@
+package com.example.usercrud.application.port.out;
+
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Lecturas sin bloqueo para la pila reactiva, con la misma semántica que en UserRepositoryPort. Las escrituras
+// siguen pasando por UserRepositoryPort dentro de las transacciones de UserService
+public interface ReactiveUserRepositoryPort {
+    Mono<User> findById(UUID id);
+    Mono<User> findByUsername(String username);
+    Flux<User> findPage(UserCursor after, int limit, boolean activeOnly);
+    Flux<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit);
+    // Emite fila a fila respetando la demanda del suscriptor
+    Flux<User> streamAll(boolean activeOnly);
+    Flux<UserChange> findChanges(UserChangeCursor after, Instant before, int limit);
+}
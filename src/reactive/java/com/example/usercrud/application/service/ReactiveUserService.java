@@ -0,0 +1,168 @@
+package com.example.usercrud.application.service;
+
+import com.example.usercrud.application.port.in.BatchItemResult;
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.ReactiveUserServicePort;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
+import com.example.usercrud.application.port.in.UserServicePort;
+import com.example.usercrud.application.port.out.ReactiveUserRepositoryPort;
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserChangePage;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserPage;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.domain.exception.UserNotFoundException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+// Lecturas sin bloqueo (ReactiveUserRepositoryPort) para servir mucho tráfico de lectura con pocos hilos; la caché
+// se consulta en boundedElastic porque su nivel compartido puede bloquear. Las escrituras se delegan en
+// UserServicePort en el mismo scheduler: conservan su transacción JDBC, el outbox y las invalidaciones de caché, y no
+// ocupan nunca un hilo del event loop
+public class ReactiveUserService implements ReactiveUserServicePort {
+    
+    private final ReactiveUserRepositoryPort userRepository;
+    private final UserCachePort userCache;
+    private final UserServicePort userService;
+    private final Clock clock;
+    
+    public ReactiveUserService(ReactiveUserRepositoryPort userRepository, UserCachePort userCache,
+                               UserServicePort userService, Clock clock) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userService = userService;
+        this.clock = clock;
+    }
+    
+    @Override
+    public Mono<User> createUser(String username, String email, String firstName, String lastName) {
+        return blocking(() -> userService.createUser(username, email, firstName, lastName));
+    }
+    
+    @Override
+    public Mono<User> updateUser(UUID id, String username, String email, String firstName, String lastName) {
+        return blocking(() -> userService.updateUser(id, username, email, firstName, lastName));
+    }
+    
+    @Override
+    public Mono<User> updateUser(UUID id, long expectedVersion, String username, String email, String firstName,
+                                 String lastName) {
+        return blocking(() -> userService.updateUser(id, expectedVersion, username, email, firstName, lastName));
+    }
+    
+    @Override
+    public Mono<User> getUserById(UUID id) {
+        // La caché puede tener un nivel compartido en red (Redis, con llamadas síncronas): se consulta y se rellena
+        // en boundedElastic, nunca en el event loop
+        return blocking(() -> userCache.getById(id))
+                .flatMap(cached -> cached.map(Mono::just).orElseGet(() -> userRepository.findById(id)
+                        .publishOn(Schedulers.boundedElastic())
+                        .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found with id: " + id)))
+                        .doOnNext(userCache::put)));
+    }
+    
+    @Override
+    public Mono<User> getUserByUsername(String username) {
+        return blocking(() -> userCache.getByUsername(username))
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        return Mono.just(cached.get());
+                    }
+                    if (userCache.isKnownMissingUsername(username)) {
+                        return Mono.error(new UserNotFoundException("User not found with username: " + username));
+                    }
+                    return userRepository.findByUsername(username)
+                            .publishOn(Schedulers.boundedElastic())
+                            .switchIfEmpty(Mono.error(() -> {
+                                userCache.putMissingUsername(username);
+                                return new UserNotFoundException("User not found with username: " + username);
+                            }))
+                            .doOnNext(userCache::put);
+                });
+    }
+    
+    @Override
+    public Mono<UserPage> getUsers(UserCursor after, int limit, boolean activeOnly) {
+        return Mono.defer(() -> {
+            UserService.checkLimit(limit);
+            return userRepository.findPage(after, limit + 1, activeOnly)
+                    .collectList()
+                    .map(users -> UserService.toPage(users, limit));
+        });
+    }
+    
+    @Override
+    public Mono<UserPage> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        return Mono.defer(() -> {
+            UserService.checkLimit(limit);
+            String normalized = UserService.normalizeSearchQuery(query);
+            return userRepository.searchUsers(normalized, filter, after, limit + 1)
+                    .collectList()
+                    .map(users -> UserService.toPage(users, limit));
+        });
+    }
+    
+    @Override
+    public Flux<User> streamUsers(boolean activeOnly) {
+        return userRepository.streamAll(activeOnly);
+    }
+    
+    @Override
+    public Mono<UserChangePage> getChanges(UserChangeCursor since, int limit) {
+        return Mono.defer(() -> {
+            UserService.checkLimit(limit);
+            Instant before = clock.instant().minus(UserService.CHANGES_SETTLE_WINDOW);
+            return userRepository.findChanges(since, before, limit + 1)
+                    .collectList()
+                    .map(changes -> UserService.toChangePage(changes, since, limit));
+        });
+    }
+    
+    @Override
+    public Mono<Void> deactivateUser(UUID id) {
+        return blockingVoid(() -> userService.deactivateUser(id));
+    }
+    
+    @Override
+    public Mono<Void> activateUser(UUID id) {
+        return blockingVoid(() -> userService.activateUser(id));
+    }
+    
+    @Override
+    public Mono<Void> deleteUser(UUID id) {
+        return blockingVoid(() -> userService.deleteUser(id));
+    }
+    
+    @Override
+    public Mono<List<BatchItemResult>> createUsers(List<CreateUserCommand> commands) {
+        return blocking(() -> userService.createUsers(commands));
+    }
+    
+    @Override
+    public Mono<List<BatchItemResult>> updateUsers(List<UpdateUserCommand> commands) {
+        return blocking(() -> userService.updateUsers(commands));
+    }
+    
+    @Override
+    public Mono<List<BatchItemResult>> deactivateUsers(Collection<UUID> ids) {
+        return blocking(() -> userService.deactivateUsers(ids));
+    }
+    
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private static Mono<Void> blockingVoid(Runnable call) {
+        return Mono.<Void>fromRunnable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
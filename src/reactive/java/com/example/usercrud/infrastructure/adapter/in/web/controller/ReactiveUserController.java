@@ -0,0 +1,314 @@
+package com.example.usercrud.infrastructure.adapter.in.web.controller;
+
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.ReactiveUserServicePort;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchCreateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchDeactivateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchItemResultDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.BatchUpdateUsersDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.CreateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UpdateUserDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserChangePageDto;
+import com.example.usercrud.infrastructure.adapter.in.web.dto.UserPageDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Las mismas rutas, parámetros, códigos de estado y ETags que UserController, sobre WebFlux (perfil reactive).
+// Ningún método bloquea: las lecturas llegan de R2DBC y las escrituras se ejecutan fuera del event loop
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    
+    // Usuarios por escritura en el socket durante una exportación
+    private static final int EXPORT_CHUNK_SIZE = 256;
+    
+    private final ReactiveUserServicePort userService;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter cborWriter;
+    
+    public ReactiveUserController(ReactiveUserServicePort userService, ObjectMapper objectMapper,
+                                  MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.userService = userService;
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cborWriter = cborConverter.getObjectMapper().writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<User>> createUser(@Valid @RequestBody CreateUserDto createDto) {
+        return userService.createUser(
+            createDto.getUsername(),
+            createDto.getEmail(),
+            createDto.getFirstName(),
+            createDto.getLastName()
+        ).map(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<User>> getUserById(@PathVariable("id") UUID id, ServerWebExchange exchange) {
+        return userService.getUserById(id).mapNotNull(user -> conditionalOk(user, exchange));
+    }
+    
+    @GetMapping("/username/{username}")
+    public Mono<ResponseEntity<User>> getUserByUsername(@PathVariable("username") String username,
+                                                       ServerWebExchange exchange) {
+        return userService.getUserByUsername(username).mapNotNull(user -> conditionalOk(user, exchange));
+    }
+    
+    @GetMapping
+    public Mono<ResponseEntity<UserPageDto>> getAllUsers(
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false, defaultValue = "" + UserController.DEFAULT_PAGE_SIZE)
+            Integer limit,
+            ServerWebExchange exchange) {
+        return userService.getUsers(
+            UserCursorCodec.decode(cursor),
+            Math.min(limit, UserController.MAX_PAGE_SIZE),
+            activeOnly
+        ).mapNotNull(page -> {
+            String nextCursor = UserCursorCodec.encode(page.getNextCursor());
+            // Solo el ETag, como en UserController.getAllUsers
+            if (exchange.checkNotModified(UserEtags.ofPage(page.getUsers(), nextCursor))) {
+                return null;
+            }
+            return ResponseEntity.ok(new UserPageDto(page.getUsers(), nextCursor));
+        });
+    }
+    
+    @GetMapping("/search")
+    public Mono<ResponseEntity<UserPageDto>> searchUsers(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "match", required = false, defaultValue = "prefix") String match,
+            @RequestParam(name = "active", required = false) Boolean active,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false, defaultValue = "" + UserController.DEFAULT_PAGE_SIZE)
+            Integer limit) {
+        UserSearchFilter filter = new UserSearchFilter(UserController.parseMatch(match), active);
+        return userService.searchUsers(
+            query,
+            filter,
+            UserCursorCodec.decode(cursor),
+            Math.min(limit, UserController.MAX_PAGE_SIZE)
+        ).map(page -> ResponseEntity.ok(
+                new UserPageDto(page.getUsers(), UserCursorCodec.encode(page.getNextCursor()))));
+    }
+    
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<UserChangePageDto>> getChanges(
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false, defaultValue = "" + UserController.MAX_PAGE_SIZE)
+            Integer limit) {
+        return userService.getChanges(
+            UserCursorCodec.decodeChange(since),
+            Math.min(limit, UserController.MAX_PAGE_SIZE)
+        ).map(page -> ResponseEntity.ok(UserController.toDto(page)));
+    }
+    
+    @GetMapping(produces = UserController.NDJSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> streamAllUsers(
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        return export(activeOnly, UserController.NDJSON_VALUE, jsonValues(ndjsonWriter, true));
+    }
+    
+    @GetMapping(produces = UserController.CBOR_SEQ_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> streamAllUsersCbor(
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        return export(activeOnly, UserController.CBOR_SEQ_VALUE, jsonValues(cborWriter, false));
+    }
+    
+    @GetMapping(produces = UserCsvWriter.MEDIA_TYPE)
+    public ResponseEntity<Flux<DataBuffer>> streamAllUsersCsv(
+            @RequestParam(name = "activeOnly", required = false, defaultValue = "false") Boolean activeOnly) {
+        return export(activeOnly, UserCsvWriter.MEDIA_TYPE + ";charset=UTF-8", (users, first, out) -> {
+            UserCsvWriter csv = new UserCsvWriter(out, first);
+            for (User user : users) {
+                csv.write(user);
+            }
+            csv.flush();
+        });
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<User>> updateUser(
+            @PathVariable("id") UUID id,
+            @Valid @RequestBody UpdateUserDto updateDto,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Mono<User> updated;
+        if (ifMatch == null || UserEtags.isWildcard(ifMatch)) {
+            updated = userService.updateUser(
+                id,
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            );
+        } else {
+            Long expectedVersion = UserEtags.expectedVersion(ifMatch, id);
+            if (expectedVersion == null) {
+                return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+            }
+            updated = userService.updateUser(
+                id,
+                expectedVersion,
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            );
+        }
+        return updated.map(user -> ResponseEntity.ok()
+                .eTag(UserEtags.of(user))
+                .lastModified(UserEtags.lastModified(user))
+                .body(user));
+    }
+    
+    @PatchMapping("/{id}/deactivate")
+    public Mono<ResponseEntity<Void>> deactivateUser(@PathVariable("id") UUID id) {
+        return userService.deactivateUser(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+    
+    @PatchMapping("/{id}/activate")
+    public Mono<ResponseEntity<Void>> activateUser(@PathVariable("id") UUID id) {
+        return userService.activateUser(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable("id") UUID id) {
+        return userService.deleteUser(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+    
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<BatchItemResultDto>>> createUsers(
+            @Valid @RequestBody BatchCreateUsersDto batchDto) {
+        List<CreateUserCommand> commands = new ArrayList<>(batchDto.getUsers().size());
+        for (CreateUserDto createDto : batchDto.getUsers()) {
+            commands.add(new CreateUserCommand(
+                createDto.getUsername(),
+                createDto.getEmail(),
+                createDto.getFirstName(),
+                createDto.getLastName()
+            ));
+        }
+        return userService.createUsers(commands).map(results -> ResponseEntity.ok(UserController.toDtos(results)));
+    }
+    
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<List<BatchItemResultDto>>> updateUsers(
+            @Valid @RequestBody BatchUpdateUsersDto batchDto) {
+        List<UpdateUserCommand> commands = new ArrayList<>(batchDto.getUsers().size());
+        for (BatchUpdateUserDto updateDto : batchDto.getUsers()) {
+            commands.add(new UpdateUserCommand(
+                updateDto.getId(),
+                updateDto.getUsername(),
+                updateDto.getEmail(),
+                updateDto.getFirstName(),
+                updateDto.getLastName()
+            ));
+        }
+        return userService.updateUsers(commands).map(results -> ResponseEntity.ok(UserController.toDtos(results)));
+    }
+    
+    @PatchMapping("/batch/deactivate")
+    public Mono<ResponseEntity<List<BatchItemResultDto>>> deactivateUsers(
+            @Valid @RequestBody BatchDeactivateUsersDto batchDto) {
+        return userService.deactivateUsers(batchDto.getIds())
+                .map(results -> ResponseEntity.ok(UserController.toDtos(results)));
+    }
+    
+    // null (Mono vacío) con If-None-Match/If-Modified-Since vigentes: checkNotModified ya ha fijado el 304
+    private static ResponseEntity<User> conditionalOk(User user, ServerWebExchange exchange) {
+        if (exchange.checkNotModified(UserEtags.of(user), Instant.ofEpochMilli(UserEtags.lastModified(user)))) {
+            return null;
+        }
+        return ResponseEntity.ok(user);
+    }
+    
+    // Los usuarios se serializan en bloques de EXPORT_CHUNK_SIZE y cada bloque es una escritura en el socket. El
+    // siguiente bloque se pide a R2DBC cuando Netty ha escrito el anterior: un cliente lento frena la consulta en
+    // lugar de acumular filas en memoria
+    private ResponseEntity<Flux<DataBuffer>> export(boolean activeOnly, String mediaType, ChunkWriter writer) {
+        Flux<DataBuffer> body = userService.streamUsers(activeOnly)
+                .buffer(EXPORT_CHUNK_SIZE)
+                .index()
+                .map(chunk -> write(writer, chunk.getT2(), chunk.getT1() == 0))
+                // Sin usuarios la exportación CSV aún lleva la cabecera
+                .switchIfEmpty(Mono.fromSupplier(() -> write(writer, List.of(), true)));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(mediaType))
+                .body(body);
+    }
+    
+    private static DataBuffer write(ChunkWriter writer, List<User> users, boolean first) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(256, users.size() * 192));
+        try {
+            writer.write(users, first, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return DefaultDataBufferFactory.sharedInstance.wrap(out.toByteArray());
+    }
+    
+    // Un valor raíz por usuario, como UserController.streamValues
+    private static ChunkWriter jsonValues(ObjectWriter writer, boolean newlineDelimited) {
+        return (users, first, out) -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                if (newlineDelimited) {
+                    generator.setRootValueSeparator(null);
+                }
+                for (User user : users) {
+                    writer.writeValue(generator, user);
+                    if (newlineDelimited) {
+                        generator.writeRaw('\n');
+                    }
+                }
+            }
+        };
+    }
+    
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<User> users, boolean first, OutputStream out) throws IOException;
+    }
+}
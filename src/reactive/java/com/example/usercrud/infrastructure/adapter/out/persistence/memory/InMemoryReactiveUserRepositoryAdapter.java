@@ -0,0 +1,58 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.memory;
+
+import com.example.usercrud.application.port.out.ReactiveUserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Perfiles reactive + memory: expone el adaptador en memoria como ReactiveUserRepositoryPort. Sus lecturas no
+// bloquean (mapas concurrentes), así que se ejecutan directamente en el hilo que se suscribe
+@Repository
+@Profile("reactive & memory")
+public class InMemoryReactiveUserRepositoryAdapter implements ReactiveUserRepositoryPort {
+    
+    private final InMemoryUserRepositoryAdapter delegate;
+    
+    public InMemoryReactiveUserRepositoryAdapter(InMemoryUserRepositoryAdapter delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public Mono<User> findById(UUID id) {
+        return Mono.defer(() -> Mono.justOrEmpty(delegate.findById(id)));
+    }
+    
+    @Override
+    public Mono<User> findByUsername(String username) {
+        return Mono.defer(() -> Mono.justOrEmpty(delegate.findByUsername(username)));
+    }
+    
+    @Override
+    public Flux<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.findPage(after, limit, activeOnly)));
+    }
+    
+    @Override
+    public Flux<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.searchUsers(query, filter, after, limit)));
+    }
+    
+    @Override
+    public Flux<User> streamAll(boolean activeOnly) {
+        return Flux.defer(() -> Flux.fromIterable(activeOnly ? delegate.findAllActive() : delegate.findAll()));
+    }
+    
+    @Override
+    public Flux<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.findChanges(after, before, limit)));
+    }
+}
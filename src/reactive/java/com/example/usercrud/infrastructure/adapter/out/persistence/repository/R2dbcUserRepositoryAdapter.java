@@ -0,0 +1,189 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.repository;
+
+import com.example.usercrud.application.port.out.ReactiveUserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.domain.UserChange;
+import com.example.usercrud.domain.UserChangeCursor;
+import com.example.usercrud.domain.UserCursor;
+import com.example.usercrud.domain.UserSearchFilter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.mapper.JdbcTimestamps;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Lecturas de la pila reactiva con R2DBC. Usa las mismas sentencias que JdbcUserRepositoryAdapter, con los '?'
+// traducidos a los marcadores $n de PostgreSQL. Las filas se emiten según llegan: el driver pide al servidor
+// bloques de fetch-size filas a medida que el suscriptor las consume, así que una exportación a un cliente lento
+// no acumula la tabla en memoria
+@Repository
+@Profile("reactive & !memory")
+public class R2dbcUserRepositoryAdapter implements ReactiveUserRepositoryPort {
+    
+    private static final String FIND_BY_ID = bindMarkers(JdbcUserRepositoryAdapter.FIND_BY_ID);
+    private static final String FIND_BY_USERNAME = bindMarkers(JdbcUserRepositoryAdapter.FIND_BY_USERNAME);
+    private static final String FIND_ALL = bindMarkers(JdbcUserRepositoryAdapter.FIND_ALL);
+    private static final String FIND_ALL_ACTIVE = bindMarkers(JdbcUserRepositoryAdapter.FIND_ALL_ACTIVE);
+    private static final String FIND_FIRST_PAGE = bindMarkers(JdbcUserRepositoryAdapter.FIND_FIRST_PAGE);
+    private static final String FIND_FIRST_ACTIVE_PAGE =
+            bindMarkers(JdbcUserRepositoryAdapter.FIND_FIRST_ACTIVE_PAGE);
+    private static final String FIND_PAGE = bindMarkers(JdbcUserRepositoryAdapter.FIND_PAGE);
+    private static final String FIND_ACTIVE_PAGE = bindMarkers(JdbcUserRepositoryAdapter.FIND_ACTIVE_PAGE);
+    private static final String FIND_FIRST_CHANGES = bindMarkers(JdbcUserRepositoryAdapter.FIND_FIRST_CHANGES);
+    private static final String FIND_CHANGES = bindMarkers(JdbcUserRepositoryAdapter.FIND_CHANGES);
+    private static final String[][][] SEARCH = bindMarkers(JdbcUserRepositoryAdapter.SEARCH);
+    
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+    
+    public R2dbcUserRepositoryAdapter(
+            DatabaseClient databaseClient,
+            @Value("${app.persistence.stream-fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+    
+    @Override
+    public Mono<User> findById(UUID id) {
+        return databaseClient.sql(FIND_BY_ID)
+                .bind(0, id)
+                .map(R2dbcUserRepositoryAdapter::toUser)
+                .one();
+    }
+    
+    @Override
+    public Mono<User> findByUsername(String username) {
+        return databaseClient.sql(FIND_BY_USERNAME)
+                .bind(0, username)
+                .map(R2dbcUserRepositoryAdapter::toUser)
+                .one();
+    }
+    
+    @Override
+    public Flux<User> findPage(UserCursor after, int limit, boolean activeOnly) {
+        if (after == null) {
+            return databaseClient.sql(activeOnly ? FIND_FIRST_ACTIVE_PAGE : FIND_FIRST_PAGE)
+                    .bind(0, limit)
+                    .map(R2dbcUserRepositoryAdapter::toUser)
+                    .all();
+        }
+        return databaseClient.sql(activeOnly ? FIND_ACTIVE_PAGE : FIND_PAGE)
+                .bind(0, JdbcTimestamps.toDb(after.getCreatedAt()))
+                .bind(1, after.getId())
+                .bind(2, limit)
+                .map(R2dbcUserRepositoryAdapter::toUser)
+                .all();
+    }
+    
+    @Override
+    public Flux<User> searchUsers(String query, UserSearchFilter filter, UserCursor after, int limit) {
+        Boolean active = filter.getActive();
+        String sql = SEARCH[filter.getMatch().ordinal()][active == null ? 0 : active ? 1 : 2][after == null ? 0 : 1];
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        int index = 0;
+        if (filter.getMatch() == UserSearchFilter.Match.PREFIX) {
+            String pattern = JdbcUserRepositoryAdapter.escapeLike(query) + "%";
+            for (int i = 0; i < 4; i++) {
+                spec = spec.bind(index++, pattern);
+            }
+        } else {
+            spec = spec.bind(index++, query);
+        }
+        if (after != null) {
+            spec = spec.bind(index++, JdbcTimestamps.toDb(after.getCreatedAt()))
+                    .bind(index++, after.getId());
+        }
+        return spec.bind(index, limit)
+                .map(R2dbcUserRepositoryAdapter::toUser)
+                .all();
+    }
+    
+    @Override
+    public Flux<User> streamAll(boolean activeOnly) {
+        return databaseClient.sql(activeOnly ? FIND_ALL_ACTIVE : FIND_ALL)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(R2dbcUserRepositoryAdapter::toUser)
+                .all();
+    }
+    
+    @Override
+    public Flux<UserChange> findChanges(UserChangeCursor after, Instant before, int limit) {
+        if (after == null) {
+            return databaseClient.sql(FIND_FIRST_CHANGES)
+                    .bind(0, JdbcTimestamps.toDb(before))
+                    .bind(1, limit)
+                    .map(R2dbcUserRepositoryAdapter::toChange)
+                    .all();
+        }
+        return databaseClient.sql(FIND_CHANGES)
+                .bind(0, JdbcTimestamps.toDb(after.getChangedAt()))
+                .bind(1, after.getId())
+                .bind(2, JdbcTimestamps.toDb(before))
+                .bind(3, limit)
+                .map(R2dbcUserRepositoryAdapter::toChange)
+                .all();
+    }
+    
+    // Mismo orden de columnas que UserRowMapper.COLUMNS
+    private static User toUser(Readable row) {
+        return new User(
+            row.get(0, UUID.class),
+            row.get(1, String.class),
+            row.get(2, String.class),
+            row.get(3, String.class),
+            row.get(4, String.class),
+            JdbcTimestamps.fromDb(row.get(5, LocalDateTime.class)),
+            JdbcTimestamps.fromDb(row.get(6, LocalDateTime.class)),
+            Boolean.TRUE.equals(row.get(7, Boolean.class)),
+            row.get(8, Long.class)
+        );
+    }
+    
+    // Mismo orden de columnas que UserChangeRowMapper.COLUMNS
+    private static UserChange toChange(Readable row) {
+        if (Boolean.TRUE.equals(row.get(9, Boolean.class))) {
+            return UserChange.deleted(
+                row.get(0, UUID.class),
+                row.get(8, Long.class),
+                JdbcTimestamps.fromDb(row.get(6, LocalDateTime.class))
+            );
+        }
+        return UserChange.upserted(toUser(row));
+    }
+    
+    // Ninguna sentencia lleva '?' dentro de literales, así que basta con numerarlos en orden
+    private static String bindMarkers(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int marker = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                result.append('$').append(++marker);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+    
+    private static String[][][] bindMarkers(String[][][] statements) {
+        String[][][] result = new String[statements.length][][];
+        for (int m = 0; m < statements.length; m++) {
+            result[m] = new String[statements[m].length][];
+            for (int a = 0; a < statements[m].length; a++) {
+                result[m][a] = new String[statements[m][a].length];
+                for (int c = 0; c < statements[m][a].length; c++) {
+                    result[m][a][c] = bindMarkers(statements[m][a][c]);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+// Con -Preactive Boot autoconfigura R2DBC (spring.r2dbc) y, al ver un ConnectionFactory, deja de autoconfigurar el
+// DataSource: supone una pila u otra. Aquí conviven, así que lo que Boot omite para JDBC se declara igual que él:
+// el pool de Hikari (salvo con réplica, que trae el suyo), schema.sql por JDBC y no por R2DBC, y el gestor de
+// transacciones JDBC como principal frente al R2dbcTransactionManager para que @Transactional lo resuelva
+@Configuration
+@Profile("!memory")
+@EnableConfigurationProperties({DataSourceProperties.class, SqlInitializationProperties.class})
+public class R2dbcConfig {
+    
+    private static final String TRANSACTION_MANAGER = "transactionManager";
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+            DataSource dataSource, SqlInitializationProperties properties) {
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+    
+    // static: los BeanFactoryPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanFactoryPostProcessor primaryTransactionManagerPostProcessor() {
+        return beanFactory -> {
+            if (beanFactory.containsBeanDefinition(TRANSACTION_MANAGER)) {
+                beanFactory.getBeanDefinition(TRANSACTION_MANAGER).setPrimary(true);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.application.port.in.ReactiveUserServicePort;
+import com.example.usercrud.application.port.in.UserServicePort;
+import com.example.usercrud.application.port.out.ReactiveUserRepositoryPort;
+import com.example.usercrud.application.port.out.UserCachePort;
+import com.example.usercrud.application.service.ReactiveUserService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import java.time.Clock;
+
+// Perfil reactive (jar compilado con -Preactive): WebFlux sobre Netty con lecturas por R2DBC. Las escrituras siguen
+// en UserService con JDBC, así que el pool de Hikari sigue existiendo. R2DBC lo configura Boot (spring.r2dbc)
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    
+    @Bean
+    public ReactiveUserServicePort reactiveUserServicePort(ReactiveUserRepositoryPort userRepository,
+                                                           UserCachePort userCache, UserServicePort userService,
+                                                           Clock clock) {
+        return new ReactiveUserService(userRepository, userCache, userService, clock);
+    }
+    
+    // Tomcat sigue en el classpath para la pila servlet y Boot lo elegiría antes que Netty. Se monta como lo hace la
+    // autoconfiguración de Netty, para que sigan aplicándose sus customizers y recursos compartidos
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<ReactorResourceFactory> resourceFactory,
+            ObjectProvider<NettyRouteProvider> routes,
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(factory::setResourceFactory);
+        routes.orderedStream().forEach(factory::addRouteProviders);
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+}
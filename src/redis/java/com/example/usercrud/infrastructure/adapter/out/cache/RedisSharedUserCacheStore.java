@@ -0,0 +1,226 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.domain.User;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Nivel compartido sobre Redis o un servidor compatible (Valkey, KeyDB, Dragonfly) con Lettuce. Cada usuario es un
+// hash {v: versión más alta que ya no se acepta, d: usuario codificado}; una lápida es el mismo hash sin 'd'. Las
+// escrituras son scripts Lua, así que comparar la versión y escribir es atómico en el servidor.
+// Las conexiones se abren en segundo plano y se reintentan cada 'reconnectInterval': la aplicación arranca sin Redis y,
+// hasta conectar, cada llamada falla al momento y TwoLevelUserCacheAdapter la cuenta como fallo de caché. Una vez
+// abiertas, Lettuce las reconecta solo
+public class RedisSharedUserCacheStore implements SharedUserCacheStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedUserCacheStore.class);
+    
+    // ARGV: versión, usuario, TTL (ms), id. Rechaza la escritura si ya hay esa versión, una posterior o una lápida
+    private static final String PUT_SCRIPT =
+            "local floor = redis.call('HGET', KEYS[1], 'v') " +
+            "if floor and tonumber(floor) >= tonumber(ARGV[1]) then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'v', ARGV[1], 'd', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[3]) " +
+            "return 1";
+    // ARGV: versión invalidada, versión más alta que ya no se acepta (la anterior), TTL de la lápida (ms). Solo
+    // conserva una entrada de esa versión o posterior; la de la versión anterior es justo la que se invalida
+    private static final String EVICT_SCRIPT =
+            "local floor = redis.call('HGET', KEYS[1], 'v') " +
+            "if floor and tonumber(floor) >= tonumber(ARGV[1]) then return 0 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('HSET', KEYS[1], 'v', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1";
+    private static final byte[] DATA_FIELD = bytes("d");
+    
+    private final RedisClient client;
+    private final String keyPrefix;
+    private final String channel;
+    private final byte[] ttlMillis;
+    private final byte[] tombstoneTtlMillis;
+    private final String putSha = sha1(PUT_SCRIPT);
+    private final String evictSha = sha1(EVICT_SCRIPT);
+    private final long reconnectIntervalMillis;
+    private final ScheduledExecutorService connector;
+    // Un único intento pendiente a la vez, aunque lo pidan el constructor y subscribe()
+    private final AtomicBoolean connectPending = new AtomicBoolean();
+    
+    // null hasta que se consigue conectar
+    private volatile StatefulRedisConnection<byte[], byte[]> connection;
+    private volatile RedisCommands<byte[], byte[]> commands;
+    private volatile StatefulRedisPubSubConnection<String, String> pubSub;
+    // Los guarda subscribe() para que la conexión de pub/sub los registre cuando se consiga
+    private volatile Consumer<String> onMessage;
+    private volatile Runnable onResubscribe;
+    
+    public RedisSharedUserCacheStore(RedisClient client, String keyPrefix, String channel, Duration ttl,
+                                     Duration tombstoneTtl, Duration reconnectInterval) {
+        this.client = client;
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+        this.ttlMillis = bytes(Long.toString(ttl.toMillis()));
+        this.tombstoneTtlMillis = bytes(Long.toString(tombstoneTtl.toMillis()));
+        this.reconnectIntervalMillis = reconnectInterval.toMillis();
+        this.connector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-redis-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        requestConnect(0);
+    }
+    
+    @Override
+    public Optional<User> get(UUID id) {
+        byte[] data = commands().hget(userKey(id), DATA_FIELD);
+        return data == null ? Optional.empty() : Optional.ofNullable(UserCacheCodec.decode(data));
+    }
+    
+    @Override
+    public Optional<UUID> getIdByUsername(String username) {
+        byte[] id = commands().get(bytes(keyPrefix + "username:" + username));
+        return id == null ? Optional.empty() : Optional.of(UUID.fromString(new String(id, StandardCharsets.UTF_8)));
+    }
+    
+    @Override
+    public boolean put(User user) {
+        byte[][] keys = {userKey(user.getId()), bytes(keyPrefix + "username:" + user.getUsername())};
+        Long written = eval(putSha, PUT_SCRIPT, keys, bytes(Long.toString(user.getVersion())),
+                UserCacheCodec.encode(user), ttlMillis, bytes(user.getId().toString()));
+        return written == 1;
+    }
+    
+    @Override
+    public void evict(UUID id, long version) {
+        byte[][] keys = {userKey(id)};
+        eval(evictSha, EVICT_SCRIPT, keys, bytes(Long.toString(version)), bytes(Long.toString(version - 1)),
+                tombstoneTtlMillis);
+    }
+    
+    @Override
+    public void publish(String message) {
+        commands().publish(bytes(channel), bytes(message));
+    }
+    
+    // Lettuce repite la suscripción al reconectar; los mensajes publicados mientras tanto se pierden. La primera
+    // suscripción también avisa a onResubscribe: hasta entonces no llegaban las invalidaciones de otras réplicas
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onResubscribe) {
+        this.onResubscribe = onResubscribe;
+        this.onMessage = onMessage;
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                if (handler == pubSub) {
+                    onResubscribe.run();
+                }
+            }
+        });
+        requestConnect(0);
+    }
+    
+    public void close() {
+        connector.shutdownNow();
+        if (pubSub != null) {
+            pubSub.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+    
+    private void requestConnect(long delayMillis) {
+        if (connectPending.compareAndSet(false, true)) {
+            connector.schedule(this::connect, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    // Solo en el hilo 'connector': abre lo que falte (comandos y, si ya hay suscriptor, pub/sub) y, si algo falla,
+    // lo reintenta más tarde. Un intento lento no retiene a nadie más
+    private void connect() {
+        connectPending.set(false);
+        try {
+            if (connection == null) {
+                StatefulRedisConnection<byte[], byte[]> connected = client.connect(ByteArrayCodec.INSTANCE);
+                commands = connected.sync();
+                connection = connected;
+                log.info("Connected to the shared user cache");
+            }
+            if (onMessage != null && pubSub == null) {
+                StatefulRedisPubSubConnection<String, String> subscribed = client.connectPubSub();
+                Consumer<String> listener = onMessage;
+                subscribed.addListener(new RedisPubSubAdapter<>() {
+                    @Override
+                    public void message(String channel, String message) {
+                        listener.accept(message);
+                    }
+                });
+                subscribed.sync().subscribe(channel);
+                pubSub = subscribed;
+                onResubscribe.run();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Shared user cache unavailable, retrying in {} ms: {}", reconnectIntervalMillis,
+                    ex.getMessage());
+            requestConnect(reconnectIntervalMillis);
+        }
+    }
+    
+    private RedisCommands<byte[], byte[]> commands() {
+        RedisCommands<byte[], byte[]> connected = commands;
+        if (connected == null) {
+            throw new RedisConnectionException("Shared user cache not connected yet");
+        }
+        return connected;
+    }
+    
+    // EVALSHA y, si el servidor no tiene el script en caché (recién arrancado o SCRIPT FLUSH), EVAL
+    private Long eval(String sha, String script, byte[][] keys, byte[]... args) {
+        try {
+            return commands().evalsha(sha, ScriptOutputType.INTEGER, keys, args);
+        } catch (RedisNoScriptException ex) {
+            return commands().eval(script, ScriptOutputType.INTEGER, keys, args);
+        }
+    }
+    
+    private byte[] userKey(UUID id) {
+        return bytes(keyPrefix + "id:" + id);
+    }
+    
+    // El SHA1 que espera EVALSHA, calculado en local para no necesitar conexión al construir el almacén
+    private static String sha1(String script) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(bytes(script)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.usercrud.infrastructure.config;
+
+import com.example.usercrud.infrastructure.adapter.out.cache.RedisSharedUserCacheStore;
+import com.example.usercrud.infrastructure.adapter.out.cache.SharedUserCacheStore;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Almacén compartido en Redis para SharedCacheConfig. Solo se compila con el perfil Maven redis, que añade Lettuce;
+// se configura aquí, sin la autoconfiguración de Spring Data Redis
+@Configuration
+@ConditionalOnProperty(name = "app.cache.shared.enabled", havingValue = "true")
+public class RedisSharedCacheConfig {
+    
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "redis", matchIfMissing = true)
+    public RedisClient userCacheRedisClient(
+            @Value("${app.cache.shared.redis.url:redis://localhost:6379}") String url,
+            @Value("${app.cache.shared.redis.timeout:200ms}") Duration timeout) {
+        RedisURI uri = RedisURI.create(url);
+        uri.setTimeout(timeout);
+        RedisClient client = RedisClient.create(uri);
+        // Sin conexión se falla al momento en lugar de encolar comandos hasta el timeout
+        client.setOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        return client;
+    }
+    
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "redis", matchIfMissing = true)
+    public SharedUserCacheStore redisSharedUserCacheStore(
+            RedisClient userCacheRedisClient,
+            @Value("${app.cache.shared.redis.key-prefix:users:}") String keyPrefix,
+            @Value("${app.cache.shared.redis.channel:user-cache-invalidations}") String channel,
+            @Value("${app.cache.shared.ttl:10m}") Duration ttl,
+            @Value("${app.cache.tombstone-ttl:10s}") Duration tombstoneTtl,
+            @Value("${app.cache.shared.redis.reconnect-interval:5s}") Duration reconnectInterval) {
+        return new RedisSharedUserCacheStore(userCacheRedisClient, keyPrefix, channel, ttl, tombstoneTtl,
+                reconnectInterval);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+class RedisSharedUserCacheStoreTest {
+    
+    // Puerto sin servidor: cada intento de conexión se rechaza
+    private final RedisClient client = RedisClient.create("redis://localhost:1");
+    private RedisSharedUserCacheStore store;
+    
+    @AfterEach
+    void tearDown() {
+        store.close();
+        client.shutdown();
+    }
+    
+    @Test
+    void startsWithoutRedisAndFailsCallsFastUntilConnected() {
+        long start = System.nanoTime();
+        store = new RedisSharedUserCacheStore(client, "users:", "user-cache-invalidations", Duration.ofMinutes(10),
+                Duration.ofSeconds(10), Duration.ofMinutes(1));
+        store.subscribe(message -> { }, () -> { });
+        
+        Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        Assertions.assertThatThrownBy(() -> store.get(UUID.randomUUID()))
+                .isInstanceOf(RedisConnectionException.class);
+        Assertions.assertThatThrownBy(() -> store.publish("message"))
+                .isInstanceOf(RedisConnectionException.class);
+    }
+}
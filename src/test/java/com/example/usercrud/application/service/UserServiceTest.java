@@ -0,0 +1,115 @@
+package com.example.usercrud.application.service;
+
+import com.example.usercrud.application.port.in.BatchItemResult;
+import com.example.usercrud.application.port.in.CreateUserCommand;
+import com.example.usercrud.application.port.in.UpdateUserCommand;
+import com.example.usercrud.application.port.out.UserKeyFilterPort;
+import com.example.usercrud.domain.RandomUserIdGenerator;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.out.cache.CaffeineUserCacheAdapter;
+import com.example.usercrud.infrastructure.adapter.out.keyfilter.NoOpUserKeyFilterAdapter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserEventOutboxAdapter;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+class UserServiceTest {
+    
+    // Precisión de nanosegundos, como Clock.systemUTC() en Linux
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00.123456789Z");
+    private static final Instant STORED = Instant.parse("2026-01-01T10:00:00.123456Z");
+    
+    private final InMemoryUserRepositoryAdapter repository = new InMemoryUserRepositoryAdapter();
+    private final CaffeineUserCacheAdapter cache = new CaffeineUserCacheAdapter(new SimpleMeterRegistry(), 1000,
+            Duration.ofMinutes(10), 1000, Duration.ofSeconds(30), Duration.ofSeconds(10));
+    private final UserService userService = new UserService(repository, cache, new NoOpUserKeyFilterAdapter(),
+            new InMemoryUserEventOutboxAdapter(), Clock.fixed(NOW, ZoneOffset.UTC), new RandomUserIdGenerator());
+    // Filtro de una réplica que no ha visto las claves escritas por las demás: las descarta todas
+    private final UserService staleFilterService = new UserService(repository, cache, new UserKeyFilterPort() {
+        @Override
+        public boolean mightContainUsername(String username) {
+            return false;
+        }
+        
+        @Override
+        public boolean mightContainEmail(String email) {
+            return false;
+        }
+        
+        @Override
+        public void add(String username, String email) {
+        }
+    }, new InMemoryUserEventOutboxAdapter(), Clock.fixed(NOW, ZoneOffset.UTC), new RandomUserIdGenerator());
+    
+    @Test
+    void createdUserHasTheTimestampsTheDatabaseStores() {
+        User created = userService.createUser("alice", "alice@example.com", "Alice", "Smith");
+        
+        Assertions.assertThat(created.getCreatedAt()).isEqualTo(STORED);
+        Assertions.assertThat(created.getUpdatedAt()).isEqualTo(STORED);
+        Assertions.assertThat(cache.getById(created.getId()))
+                .hasValueSatisfying(cached -> Assertions.assertThat(cached.getUpdatedAt()).isEqualTo(STORED));
+    }
+    
+    @Test
+    void updatedUserHasTheTimestampsTheDatabaseStores() {
+        User created = userService.createUser("alice", "alice@example.com", "Alice", "Smith");
+        
+        User updated = userService.updateUser(created.getId(), created.getVersion(), "alice", "alice@example.com",
+                "Alice", "Jones");
+        
+        Assertions.assertThat(updated.getUpdatedAt()).isEqualTo(STORED);
+        Assertions.assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+    }
+    
+    @Test
+    void batchCreateReportsKeysTheFilterMissedAsDuplicates() {
+        // Escrito por otra réplica
+        userService.createUser("bob", "bob@example.com", "Bob", "Smith");
+        
+        List<BatchItemResult> results = staleFilterService.createUsers(List.of(
+                new CreateUserCommand("carol", "carol@example.com", "Carol", "Smith"),
+                new CreateUserCommand("bob", "other@example.com", "Bob", "Jones")));
+        
+        Assertions.assertThat(results).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemResult.Status.CREATED, BatchItemResult.Status.DUPLICATE);
+        Assertions.assertThat(repository.findByUsername("carol")).isPresent();
+        Assertions.assertThat(repository.findByEmail("other@example.com")).isEmpty();
+    }
+    
+    @Test
+    void batchUpdateReportsKeysTheFilterMissedAsDuplicates() {
+        User alice = userService.createUser("alice", "alice@example.com", "Alice", "Smith");
+        User carol = userService.createUser("carol", "carol@example.com", "Carol", "Smith");
+        userService.createUser("bob", "bob@example.com", "Bob", "Smith");
+        
+        List<BatchItemResult> results = staleFilterService.updateUsers(List.of(
+                new UpdateUserCommand(alice.getId(), "alice", "alice@example.com", "Alice", "Jones"),
+                new UpdateUserCommand(carol.getId(), "bob", "carol@example.com", "Carol", "Jones")));
+        
+        Assertions.assertThat(results).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemResult.Status.UPDATED, BatchItemResult.Status.DUPLICATE);
+        Assertions.assertThat(repository.findById(alice.getId()))
+                .hasValueSatisfying(user -> Assertions.assertThat(user.getLastName()).isEqualTo("Jones"));
+        Assertions.assertThat(repository.findById(carol.getId()))
+                .hasValueSatisfying(user -> Assertions.assertThat(user.getUsername()).isEqualTo("carol"));
+    }
+    
+    // Una escritura que confirmase después del corte del feed dejaría su cambio detrás de un cursor ya entregado
+    @Test
+    void writeTransactionsTimeOutWithinTheChangesSettleWindow() {
+        Transactional transactional = UserService.class.getAnnotation(Transactional.class);
+        
+        Assertions.assertThat(transactional.timeout()).isPositive();
+        Assertions.assertThat(Duration.ofSeconds(transactional.timeout()))
+                .isLessThan(UserService.CHANGES_SETTLE_WINDOW);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadSheddingFilterTest {
+    
+    private static final String CLIENT_HEADER = "X-Api-Key";
+    
+    // Un token por cliente, sin reposición durante el test
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 0.001, 1);
+    // Una sola petición en curso
+    private final GradientConcurrencyLimiter concurrencyLimiter =
+            new GradientConcurrencyLimiter(1, 1, 1, 1_000_000_000L);
+    
+    @Test
+    void requestsRejectedForOverloadDoNotSpendTheClientBudget() throws Exception {
+        LoadSheddingFilter filter = filter(CLIENT_HEADER);
+        concurrencyLimiter.tryAcquire();
+        
+        Assertions.assertThat(call(filter, "client-a")).isEqualTo(503);
+        concurrencyLimiter.releaseWithoutSample();
+        
+        Assertions.assertThat(call(filter, "client-a")).isEqualTo(200);
+        Assertions.assertThat(call(filter, "client-a")).isEqualTo(429);
+    }
+    
+    @Test
+    void rateLimitedRequestsReleaseTheirConcurrencyPermit() throws Exception {
+        LoadSheddingFilter filter = filter(CLIENT_HEADER);
+        
+        Assertions.assertThat(call(filter, "client-a")).isEqualTo(200);
+        Assertions.assertThat(call(filter, "client-a")).isEqualTo(429);
+        Assertions.assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+    
+    @Test
+    void withoutClientHeaderThereIsNoPerClientLimit() throws Exception {
+        LoadSheddingFilter filter = filter("");
+        
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertThat(call(filter, null)).isEqualTo(200);
+        }
+    }
+    
+    private LoadSheddingFilter filter(String clientHeader) {
+        return new LoadSheddingFilter(rateLimiter, concurrencyLimiter, new EndpointCosts(10, 50, 5, 10, 20, 1),
+                clientHeader, new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+    }
+    
+    private static int call(LoadSheddingFilter filter, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/alice");
+        if (client != null) {
+            request.addHeader(CLIENT_HEADER, client);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
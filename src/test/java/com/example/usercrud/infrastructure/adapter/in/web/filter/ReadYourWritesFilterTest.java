@@ -0,0 +1,71 @@
+package com.example.usercrud.infrastructure.adapter.in.web.filter;
+
+import com.example.usercrud.infrastructure.adapter.out.persistence.routing.ReadYourWritesContext;
+import jakarta.servlet.http.Cookie;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ReadYourWritesFilterTest {
+    
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+    
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(WINDOW);
+    
+    @Test
+    void writesOpenAPrimaryReadWindowForTheClient() throws Exception {
+        long before = System.currentTimeMillis();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        boolean primaryRequired = call(new MockHttpServletRequest("POST", "/api/users"), response);
+        
+        Assertions.assertThat(primaryRequired).isFalse();
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        Assertions.assertThat(cookie).isNotNull();
+        Assertions.assertThat(Long.parseLong(cookie.getValue()))
+                .isBetween(before + WINDOW.toMillis(), System.currentTimeMillis() + WINDOW.toMillis());
+        Assertions.assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("HttpOnly");
+    }
+    
+    @Test
+    void readsInsideTheWindowRequireThePrimary() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        boolean primaryRequired = call(read(System.currentTimeMillis() + WINDOW.toMillis()), response);
+        
+        Assertions.assertThat(primaryRequired).isTrue();
+        Assertions.assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+        // La marca es del hilo: no debe pasar a la siguiente petición que atienda
+        Assertions.assertThat(ReadYourWritesContext.isPrimaryRequired()).isFalse();
+    }
+    
+    @Test
+    void readsAfterTheWindowOrWithoutAValidCookieMayUseTheReplica() throws Exception {
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/users/alice");
+        malformed.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "soon"));
+        
+        Assertions.assertThat(call(read(System.currentTimeMillis() - 1), new MockHttpServletResponse())).isFalse();
+        Assertions.assertThat(call(new MockHttpServletRequest("GET", "/api/users/alice"),
+                new MockHttpServletResponse())).isFalse();
+        Assertions.assertThat(call(malformed, new MockHttpServletResponse())).isFalse();
+    }
+    
+    private static MockHttpServletRequest read(long primaryUntil) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/alice");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(primaryUntil)));
+        return request;
+    }
+    
+    // true si la petición se atendió con ReadYourWritesContext exigiendo el primario
+    private boolean call(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        filter.doFilter(request, response,
+                (req, res) -> primaryRequired.set(ReadYourWritesContext.isPrimaryRequired()));
+        return primaryRequired.get();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class CaffeineUserCacheAdapterTest {
+    
+    private static final Duration TOMBSTONE_TTL = Duration.ofMillis(100);
+    
+    private final CaffeineUserCacheAdapter cache = new CaffeineUserCacheAdapter(new SimpleMeterRegistry(), 1_000,
+            Duration.ofMinutes(10), 1_000, Duration.ofSeconds(30), TOMBSTONE_TTL);
+    
+    @Test
+    void aLookupThatMissedBeforeTheCreateCommittedDoesNotCacheTheUsernameAsMissing() {
+        // Orden del fallo: la búsqueda consulta la BD, el alta confirma y limpia la caché negativa, y la búsqueda
+        // guarda su resultado después
+        cache.evictMissingUsername("bob");
+        cache.putMissingUsername("bob");
+        
+        Assertions.assertThat(cache.isKnownMissingUsername("bob")).isFalse();
+    }
+    
+    @Test
+    void usernamesAreNegativelyCachedAgainOnceTheTombstoneExpires() throws InterruptedException {
+        cache.evictMissingUsername("bob");
+        Thread.sleep(TOMBSTONE_TTL.toMillis() * 3);
+        
+        cache.putMissingUsername("bob");
+        
+        Assertions.assertThat(cache.isKnownMissingUsername("bob")).isTrue();
+        Assertions.assertThat(cache.isKnownMissingUsername("carol")).isFalse();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.usercrud.infrastructure.adapter.out.cache;
+
+import com.example.usercrud.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+class TwoLevelUserCacheAdapterTest {
+    
+    // Lápida local corta para poder esperar a que caduque; la del nivel compartido dura todo el test
+    private static final Duration NEAR_TOMBSTONE_TTL = Duration.ofMillis(100);
+    
+    private final InMemorySharedUserCacheStore shared =
+            new InMemorySharedUserCacheStore(1_000, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    private final TwoLevelUserCacheAdapter node = node();
+    private final TwoLevelUserCacheAdapter otherNode = node();
+    private final User user = User.create(UUID.randomUUID(), "alice", "alice@example.com", "Alice", "Smith",
+            Instant.now());
+    
+    @Test
+    void aDeactivatedUserIsNotReadBackFromTheSharedTierOnceTheNearTombstoneExpires() throws InterruptedException {
+        node.put(user);
+        otherNode.getById(user.getId());
+        User deactivated = user.withActive(false, Instant.now());
+        
+        // Como UserService.changeActive: tras el commit solo se invalida, no se vuelve a escribir
+        node.evict(user.getId(), deactivated.getVersion());
+        Thread.sleep(NEAR_TOMBSTONE_TTL.toMillis() * 3);
+        
+        Assertions.assertThat(node.getById(user.getId())).isEmpty();
+        Assertions.assertThat(otherNode.getById(user.getId())).isEmpty();
+        Assertions.assertThat(otherNode.getByUsername(user.getUsername())).isEmpty();
+        // Una lectura posterior de la BD vuelve a llenar ambos niveles
+        node.put(deactivated);
+        Assertions.assertThat(otherNode.getById(user.getId())).contains(deactivated);
+    }
+    
+    @Test
+    void anEvictionKeepsAnEntryThatIsAlreadyAtTheInvalidatedVersion() {
+        User deactivated = user.withActive(false, Instant.now());
+        node.put(deactivated);
+        
+        otherNode.evict(user.getId(), deactivated.getVersion());
+        
+        Assertions.assertThat(shared.get(user.getId())).contains(deactivated);
+    }
+    
+    private TwoLevelUserCacheAdapter node() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CaffeineUserCacheAdapter near = new CaffeineUserCacheAdapter(meterRegistry, 1_000, Duration.ofMinutes(10),
+                1_000, Duration.ofSeconds(30), NEAR_TOMBSTONE_TTL);
+        return new TwoLevelUserCacheAdapter(near, shared, meterRegistry);
+    }
+}
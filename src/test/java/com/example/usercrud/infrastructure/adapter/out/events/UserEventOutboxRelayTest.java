@@ -0,0 +1,110 @@
+package com.example.usercrud.infrastructure.adapter.out.events;
+
+import com.example.usercrud.application.port.out.UserEventPublisherPort;
+import com.example.usercrud.domain.UserEvent;
+import com.example.usercrud.infrastructure.adapter.out.persistence.memory.InMemoryUserEventOutboxAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class UserEventOutboxRelayTest {
+    
+    private static final int EVENTS = 5_000;
+    
+    private final InMemoryUserEventOutboxAdapter outbox = new InMemoryUserEventOutboxAdapter();
+    
+    @Test
+    void relaysOnSeveralReplicasPublishEachEventOnce() throws InterruptedException {
+        Map<Long, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+        List<List<Long>> published = List.of(new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>());
+        List<UserEventOutboxRelay> relays = new ArrayList<>();
+        for (List<Long> replica : published) {
+            relays.add(relay(events -> {
+                for (UserEvent event : events) {
+                    deliveries.computeIfAbsent(event.getSequence(), key -> new AtomicInteger()).incrementAndGet();
+                    replica.add(event.getSequence());
+                }
+            }, Duration.ofMinutes(5)));
+        }
+        relays.forEach(UserEventOutboxRelay::start);
+        try {
+            // Escrituras mientras los relays ya están leyendo
+            for (int i = 0; i < EVENTS; i++) {
+                outbox.append(event());
+            }
+            awaitDeliveries(deliveries, EVENTS);
+        } finally {
+            relays.forEach(UserEventOutboxRelay::stop);
+        }
+        
+        Assertions.assertThat(deliveries).hasSize(EVENTS);
+        Assertions.assertThat(deliveries.values()).allMatch(count -> count.get() == 1);
+        Assertions.assertThat(outbox.claimPending(EVENTS, Duration.ofMinutes(5))).isEmpty();
+        for (List<Long> replica : published) {
+            Assertions.assertThat(replica).isSorted();
+        }
+    }
+    
+    @Test
+    void eventsClaimedByAStoppedReplicaArePublishedAfterTheLease() {
+        Duration lease = Duration.ofMillis(500);
+        outbox.append(event());
+        // Las dos reservas antes de comprobar nada: la primera aserción carga AssertJ y puede tardar más que la reserva
+        List<UserEvent> claimed = outbox.claimPending(10, lease);
+        List<UserEvent> claimedAgain = outbox.claimPending(10, lease);
+        Assertions.assertThat(claimed).hasSize(1);
+        Assertions.assertThat(claimedAgain).isEmpty();
+        
+        sleep(lease.toMillis() + 100);
+        Assertions.assertThat(outbox.claimPending(10, lease)).hasSize(1);
+    }
+    
+    @Test
+    void stoppingReleasesEventsThatWereNotPublished() {
+        UserEventOutboxRelay relay = relay(events -> {
+            throw new IllegalStateException("sink down");
+        }, Duration.ofMinutes(5));
+        outbox.append(event());
+        relay.start();
+        sleep(100);
+        relay.stop();
+        
+        Assertions.assertThat(outbox.claimPending(10, Duration.ofMinutes(5))).hasSize(1);
+    }
+    
+    private UserEventOutboxRelay relay(UserEventPublisherPort publisher, Duration lease) {
+        return new UserEventOutboxRelay(outbox, publisher, new SimpleMeterRegistry(), 100, 500,
+                Duration.ofMillis(5), Duration.ofMillis(20), lease);
+    }
+    
+    private static void awaitDeliveries(Map<Long, AtomicInteger> deliveries, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (deliveries.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+    
+    private static UserEvent event() {
+        return UserEvent.deleted(UUID.randomUUID(), 1, Instant.now());
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
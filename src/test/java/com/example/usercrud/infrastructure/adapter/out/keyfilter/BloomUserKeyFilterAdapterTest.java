@@ -0,0 +1,71 @@
+package com.example.usercrud.infrastructure.adapter.out.keyfilter;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+class BloomUserKeyFilterAdapterTest {
+    
+    private final UserRepositoryPort repository = Mockito.mock(UserRepositoryPort.class);
+    private final BloomUserKeyFilterAdapter keyFilter = new BloomUserKeyFilterAdapter(repository,
+            Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 1000, 0.01, Duration.ofHours(6));
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void keysAddedDuringARebuildSurviveTheSwap() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(1);
+            consumer.accept(User.create(UUID.randomUUID(), "alice", "alice@example.com", "Alice", "Smith",
+                    Instant.now()));
+            streaming.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(repository).streamAll(ArgumentMatchers.eq(false), ArgumentMatchers.any());
+        
+        Future<BloomFilterStats> rebuild = executor.submit(keyFilter::rebuild);
+        Assertions.assertThat(streaming.await(10, TimeUnit.SECONDS)).isTrue();
+        // Confirmado después de que el recorrido leyera su snapshot
+        keyFilter.add("bob", "bob@example.com");
+        release.countDown();
+        
+        Assertions.assertThat(rebuild.get(10, TimeUnit.SECONDS).isLoaded()).isTrue();
+        Assertions.assertThat(keyFilter.mightContainUsername("alice")).isTrue();
+        Assertions.assertThat(keyFilter.mightContainUsername("bob")).isTrue();
+        Assertions.assertThat(keyFilter.mightContainEmail("bob@example.com")).isTrue();
+    }
+    
+    @Test
+    void aFailedRebuildKeepsServingThePreviousFilter() {
+        keyFilter.rebuild();
+        keyFilter.add("bob", "bob@example.com");
+        Mockito.doThrow(new IllegalStateException("connection lost"))
+                .when(repository).streamAll(ArgumentMatchers.eq(false), ArgumentMatchers.any());
+        
+        Assertions.assertThatThrownBy(keyFilter::rebuild).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(keyFilter.stats().isLoaded()).isTrue();
+        Assertions.assertThat(keyFilter.mightContainUsername("bob")).isTrue();
+    }
+}
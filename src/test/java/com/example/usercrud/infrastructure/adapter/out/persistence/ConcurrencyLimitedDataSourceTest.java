@@ -0,0 +1,80 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+class ConcurrencyLimitedDataSourceTest {
+    
+    private final DataSource delegate = Mockito.mock(DataSource.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitedDataSource dataSource;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        Mockito.when(delegate.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        dataSource = new ConcurrencyLimitedDataSource(delegate, 2, Duration.ofMillis(50), meterRegistry);
+    }
+    
+    @Test
+    void connectionsBeyondTheLimitAreRejectedAfterTheTimeout() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        
+        Assertions.assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+        Assertions.assertThat(meterRegistry.get("user.repository.limiter.rejected").counter().count()).isEqualTo(1);
+        Mockito.verify(delegate, Mockito.times(2)).getConnection();
+        
+        first.close();
+        second.close();
+    }
+    
+    @Test
+    void closingTheConnectionReturnsThePermitOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        Assertions.assertThat(available()).isEqualTo(1);
+        
+        connection.close();
+        connection.close();
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+    
+    @Test
+    void failedConnectionAttemptsReturnThePermit() throws SQLException {
+        Mockito.when(delegate.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        
+        Assertions.assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("pool exhausted");
+        Assertions.assertThat(available()).isEqualTo(2);
+    }
+    
+    @Test
+    void otherCallsReachTheUnderlyingConnection() throws SQLException {
+        Connection target = Mockito.mock(Connection.class);
+        Mockito.when(delegate.getConnection()).thenReturn(target);
+        
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        connection.commit();
+        connection.close();
+        
+        Mockito.verify(target).setAutoCommit(false);
+        Mockito.verify(target).commit();
+        Mockito.verify(target).close();
+    }
+    
+    private double available() {
+        return meterRegistry.get("user.repository.limiter.available").gauge().value();
+    }
+}
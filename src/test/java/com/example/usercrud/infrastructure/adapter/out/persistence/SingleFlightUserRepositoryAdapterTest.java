@@ -0,0 +1,159 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence;
+
+import com.example.usercrud.application.port.out.UserRepositoryPort;
+import com.example.usercrud.domain.User;
+import com.example.usercrud.infrastructure.adapter.out.persistence.routing.ReadYourWritesContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightUserRepositoryAdapterTest {
+    
+    private static final int CALLERS = 32;
+    
+    private final User user = User.create(UUID.randomUUID(), "alice", "alice@example.com", "Alice", "Smith",
+            Instant.now());
+    private final UserRepositoryPort delegate = Mockito.mock(UserRepositoryPort.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger queries = new AtomicInteger();
+    private ExecutorService executor;
+    private SingleFlightUserRepositoryAdapter adapter;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+        adapter = new SingleFlightUserRepositoryAdapter(delegate, Duration.ofSeconds(30), meterRegistry);
+        // La primera consulta se queda en la "BD" hasta que el test la suelta; las demás responden al momento
+        Mockito.when(delegate.findById(user.getId())).thenAnswer(invocation -> {
+            if (queries.getAndIncrement() == 0) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return Optional.of(user);
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentLookupsOfTheSameIdQueryTheDelegateOnce() throws Exception {
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> adapter.findById(user.getId())));
+        }
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+        
+        for (Future<Optional<User>> result : results) {
+            Assertions.assertThat(result.get(10, TimeUnit.SECONDS)).containsSame(user);
+        }
+        Mockito.verify(delegate, Mockito.times(1)).findById(user.getId());
+        Assertions.assertThat(count("leader")).isEqualTo(1);
+        Assertions.assertThat(count("follower")).isEqualTo(CALLERS - 1);
+    }
+    
+    @Test
+    void lookupsInsideReadOnlyTransactionsAreShared() throws Exception {
+        Future<Optional<User>> leader = executor.submit(() -> adapter.findById(user.getId()));
+        awaitQueries(1);
+        Future<Optional<User>> follower = executor.submit(() -> inTransaction(true));
+        awaitFollowers(1);
+        release.countDown();
+        
+        Assertions.assertThat(leader.get(10, TimeUnit.SECONDS)).containsSame(user);
+        Assertions.assertThat(follower.get(10, TimeUnit.SECONDS)).containsSame(user);
+        Mockito.verify(delegate, Mockito.times(1)).findById(user.getId());
+    }
+    
+    @Test
+    void lookupsInsideReadWriteTransactionsQueryTheDelegateThemselves() throws Exception {
+        Future<Optional<User>> leader = executor.submit(() -> adapter.findById(user.getId()));
+        awaitQueries(1);
+        
+        // Con la consulta compartida todavía en curso, la lectura de la transacción no la espera
+        Future<Optional<User>> inTransaction = executor.submit(() -> inTransaction(false));
+        Assertions.assertThat(inTransaction.get(10, TimeUnit.SECONDS)).containsSame(user);
+        release.countDown();
+        
+        Assertions.assertThat(leader.get(10, TimeUnit.SECONDS)).containsSame(user);
+        Mockito.verify(delegate, Mockito.times(2)).findById(user.getId());
+        Assertions.assertThat(count("follower")).isZero();
+    }
+    
+    @Test
+    void lookupsThatMustReadTheirWritesQueryTheDelegateThemselves() throws Exception {
+        Future<Optional<User>> leader = executor.submit(() -> adapter.findById(user.getId()));
+        awaitQueries(1);
+        
+        Future<Optional<User>> readYourWrites = executor.submit(() -> {
+            ReadYourWritesContext.requirePrimary();
+            try {
+                return adapter.findById(user.getId());
+            } finally {
+                ReadYourWritesContext.clear();
+            }
+        });
+        Assertions.assertThat(readYourWrites.get(10, TimeUnit.SECONDS)).containsSame(user);
+        release.countDown();
+        
+        Assertions.assertThat(leader.get(10, TimeUnit.SECONDS)).containsSame(user);
+        Mockito.verify(delegate, Mockito.times(2)).findById(user.getId());
+        Assertions.assertThat(count("follower")).isZero();
+    }
+    
+    private Optional<User> inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return adapter.findById(user.getId());
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    private double count(String role) {
+        return meterRegistry.get("user.repository.singleflight")
+                .tag("operation", "findById")
+                .tag("role", role)
+                .counter()
+                .count();
+    }
+    
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("follower") < followers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertThat(count("follower")).isEqualTo(followers);
+    }
+    
+    private void awaitQueries(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queries.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertThat(queries.get()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usercrud.infrastructure.adapter.out.persistence.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Mismo montaje que ReadReplicaDataSourceConfig (enrutado detrás de LazyConnectionDataSourceProxy y el gestor de
+// transacciones sobre el proxy) con dos DataSource simulados en lugar de los pools
+class ReadWriteRoutingDataSourceTest {
+    
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final DataSource replica = Mockito.mock(DataSource.class);
+    private final LazyConnectionDataSourceProxy dataSource = routingDataSource();
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToTheReplica() throws SQLException {
+        Connection connection = connection(replica);
+        
+        runStatement(true);
+        
+        Mockito.verify(replica).getConnection();
+        Mockito.verify(primary, Mockito.never()).getConnection();
+        Mockito.verify(connection).setReadOnly(true);
+    }
+    
+    @Test
+    void readWriteTransactionsGoToThePrimary() throws SQLException {
+        Connection connection = connection(primary);
+        
+        runStatement(false);
+        
+        Mockito.verify(primary).getConnection();
+        Mockito.verify(replica, Mockito.never()).getConnection();
+        Mockito.verify(connection).commit();
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToThePrimaryWhenTheSessionJustWrote() throws SQLException {
+        connection(primary);
+        ReadYourWritesContext.requirePrimary();
+        
+        runStatement(true);
+        
+        Mockito.verify(primary).getConnection();
+        Mockito.verify(replica, Mockito.never()).getConnection();
+    }
+    
+    // La conexión física se pide en la primera sentencia, ya con el flag readOnly de la transacción publicado
+    private void runStatement(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        transaction.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+    
+    private LazyConnectionDataSourceProxy routingDataSource() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica,
+                new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+    
+    private static Connection connection(DataSource target) throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getAutoCommit()).thenReturn(true);
+        Mockito.when(target.getConnection()).thenReturn(connection);
+        return connection;
+    }
+}